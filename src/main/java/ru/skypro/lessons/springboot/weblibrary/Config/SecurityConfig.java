@@ -51,6 +51,8 @@ public class SecurityConfig {
                     .hasRole("ADMIN")
                     .requestMatchers(HttpMethod.PUT, "/**")
                     .hasRole("ADMIN")
+                    .requestMatchers(HttpMethod.PATCH, "/**")
+                    .hasRole("ADMIN")
                     .requestMatchers(HttpMethod.DELETE, "/**")
                     .hasRole("ADMIN")
                     .and()
@@ -2,8 +2,10 @@ package ru.skypro.lessons.springboot.weblibrary;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class WebLibraryApplication {
 
     public static void main(String[] args) {
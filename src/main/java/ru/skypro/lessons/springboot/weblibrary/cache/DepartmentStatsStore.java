@@ -0,0 +1,268 @@
+package ru.skypro.lessons.springboot.weblibrary.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportDTO;
+import ru.skypro.lessons.springboot.weblibrary.report.DepartmentSalaryAggregate;
+import ru.skypro.lessons.springboot.weblibrary.repository.EmployeeRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Агрегаты по отделам (количество, сумма, MIN/MAX и гистограмма зарплат), которые сервис
+ * обновляет при каждом изменении сотрудника, поэтому отчёт строится без прохода по зарплатам.
+ * Мультимножество зарплат отдела нужно только чтобы восстановить MIN/MAX после удаления
+ * крайнего значения. Пока хранилище не построено или выключено
+ * ({@code app.department-stats.enabled}), отчёт считается в БД.
+ */
+@Component
+public class DepartmentStatsStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(DepartmentStatsStore.class);
+
+    private final boolean enabled;
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Long, Member> members = new HashMap<>();
+    private Map<String, Stats> departments = new TreeMap<>();
+    private List<Runnable> journal;
+    private volatile boolean ready;
+
+    public DepartmentStatsStore(@Value("${app.department-stats.enabled:false}") boolean enabled,
+                                EmployeeRepository employeeRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.enabled = enabled;
+        this.employeeRepository = employeeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.department-stats.reconcile-interval:PT10M}",
+            initialDelayString = "${app.department-stats.reconcile-interval:PT10M}")
+    public void scheduledReconcile() {
+        if (enabled && ready) {
+            reconcile();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void rebuild() {
+        logger.info("Построение статистики по отделам");
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            journal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Snapshot snapshot;
+        try {
+            snapshot = loadSnapshot();
+        } catch (RuntimeException e) {
+            logger.error("Ошибка построения статистики по отделам", e);
+            snapshot = null;
+        }
+        lock.writeLock().lock();
+        try {
+            if (snapshot != null) {
+                members = snapshot.members;
+                departments = snapshot.departments;
+                journal.forEach(Runnable::run);
+                ready = true;
+            }
+            journal = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (ready) {
+            logger.info("Статистика по отделам построена: " + departments.size());
+        }
+    }
+
+    /**
+     * Сверяет агрегаты с GROUP BY по таблице сотрудников и перестраивает хранилище при расхождении.
+     */
+    public boolean reconcile() {
+        List<Object[]> totals = transactionTemplate.execute(status -> employeeRepository.getSalaryTotalsByDepartment());
+        boolean consistent;
+        lock.readLock().lock();
+        try {
+            consistent = ready && totals != null && totals.size() == departments.size()
+                    && totals.stream().allMatch(this::matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!consistent) {
+            logger.warn("Статистика по отделам расходится с БД, выполняется перестроение");
+            rebuild();
+        }
+        return consistent;
+    }
+
+    public void put(Long id, String departmentName, int salary) {
+        if (!enabled || id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (journal != null) {
+                journal.add(() -> doPut(id, departmentName, salary));
+            }
+            doPut(id, departmentName, salary);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (journal != null) {
+                journal.add(() -> doRemove(id));
+            }
+            doRemove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ReportDTO> getReport() {
+        lock.readLock().lock();
+        try {
+            List<ReportDTO> reportDTOs = new ArrayList<>(departments.size());
+            departments.forEach((name, stats) -> reportDTOs.add(stats.aggregate.toReportDTO(name)));
+            return reportDTOs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean matches(Object[] row) {
+        Stats stats = departments.get((String) row[0]);
+        return stats != null
+                && stats.aggregate.getCount() == ((Number) row[1]).longValue()
+                && stats.aggregate.getSum() == ((Number) row[2]).longValue()
+                && stats.aggregate.getMinSalary() == ((Number) row[3]).intValue()
+                && stats.aggregate.getMaxSalary() == ((Number) row[4]).intValue();
+    }
+
+    private void doPut(Long id, String departmentName, int salary) {
+        if (departmentName == null) {
+            doRemove(id);
+            return;
+        }
+        Member previous = members.put(id, new Member(departmentName, salary));
+        if (previous != null) {
+            if (previous.salary == salary && previous.departmentName.equals(departmentName)) {
+                return;
+            }
+            removeSalary(previous);
+        }
+        departments.computeIfAbsent(departmentName, name -> new Stats()).add(salary);
+    }
+
+    private void doRemove(Long id) {
+        Member previous = members.remove(id);
+        if (previous != null) {
+            removeSalary(previous);
+        }
+    }
+
+    private void removeSalary(Member member) {
+        Stats stats = departments.get(member.departmentName);
+        if (stats != null && stats.remove(member.salary) && stats.aggregate.getCount() == 0) {
+            departments.remove(member.departmentName);
+        }
+    }
+
+    private Snapshot loadSnapshot() {
+        return transactionTemplate.execute(status -> {
+            Snapshot snapshot = new Snapshot();
+            try (Stream<Object[]> rows = employeeRepository.streamIdsSalariesAndDepartments()) {
+                Iterator<Object[]> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    Object[] row = iterator.next();
+                    Member member = new Member((String) row[2], (Integer) row[1]);
+                    snapshot.members.put((Long) row[0], member);
+                    snapshot.departments.computeIfAbsent(member.departmentName, name -> new Stats())
+                            .add(member.salary);
+                }
+            }
+            return snapshot;
+        });
+    }
+
+    private record Member(String departmentName, int salary) {
+    }
+
+    private static final class Stats {
+
+        private final DepartmentSalaryAggregate aggregate = new DepartmentSalaryAggregate();
+        private final TreeMap<Integer, Integer> salaries = new TreeMap<>();
+
+        private void add(int salary) {
+            aggregate.add(salary);
+            salaries.merge(salary, 1, Integer::sum);
+        }
+
+        private boolean remove(int salary) {
+            Integer occurrences = salaries.get(salary);
+            if (occurrences == null) {
+                return false;
+            }
+            int remainingMin = aggregate.getMinSalary();
+            int remainingMax = aggregate.getMaxSalary();
+            if (occurrences == 1) {
+                salaries.remove(salary);
+                if (!salaries.isEmpty()) {
+                    if (salary == remainingMin) {
+                        remainingMin = salaries.firstKey();
+                    }
+                    if (salary == remainingMax) {
+                        remainingMax = salaries.lastKey();
+                    }
+                }
+            } else {
+                salaries.put(salary, occurrences - 1);
+            }
+            aggregate.remove(salary, remainingMin, remainingMax);
+            return true;
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final Map<Long, Member> members = new HashMap<>();
+        private final Map<String, Stats> departments = new TreeMap<>();
+    }
+}
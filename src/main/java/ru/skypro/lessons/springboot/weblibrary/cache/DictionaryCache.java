@@ -0,0 +1,135 @@
+package ru.skypro.lessons.springboot.weblibrary.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import ru.skypro.lessons.springboot.weblibrary.model.Department;
+import ru.skypro.lessons.springboot.weblibrary.model.Position;
+import ru.skypro.lessons.springboot.weblibrary.repository.DepartmentRepository;
+import ru.skypro.lessons.springboot.weblibrary.repository.PositionRepository;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Справочник name→id для должностей и отделов. Загружается целиком при первом обращении,
+ * недостающие имена дочитываются одним запросом IN (...), сбрасывается при любой записи
+ * в position/department (см. {@link DictionaryCacheListener}).
+ */
+@Component
+public class DictionaryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(DictionaryCache.class);
+
+    private final Dictionary<Position> positions;
+    private final Dictionary<Department> departments;
+
+    public DictionaryCache(PositionRepository positionRepository, DepartmentRepository departmentRepository) {
+        this.positions = new Dictionary<>("Position", positionRepository::findAll, positionRepository::findByNameIn,
+                Position::getName, Position::getId, Position::new);
+        this.departments = new Dictionary<>("Department", departmentRepository::findAll,
+                departmentRepository::findByNameIn, Department::getName, Department::getId, Department::new);
+    }
+
+    public Position getPosition(String name) {
+        return resolvePositions(Collections.singleton(name)).get(name);
+    }
+
+    public Department getDepartment(String name) {
+        return resolveDepartments(Collections.singleton(name)).get(name);
+    }
+
+    public Map<String, Position> resolvePositions(Collection<String> names) {
+        return positions.resolve(names);
+    }
+
+    public Map<String, Department> resolveDepartments(Collection<String> names) {
+        return departments.resolve(names);
+    }
+
+    public void evictPositions() {
+        logger.debug("Справочник должностей сброшен");
+        positions.evict();
+    }
+
+    public void evictDepartments() {
+        logger.debug("Справочник отделов сброшен");
+        departments.evict();
+    }
+
+    private static final class Dictionary<T> {
+
+        private final String entityName;
+        private final Supplier<List<T>> loadAll;
+        private final Function<Collection<String>, List<T>> loadByNames;
+        private final Function<T, String> nameOf;
+        private final Function<T, Long> idOf;
+        private final BiFunction<Long, String, T> reference;
+        private final AtomicReference<Map<String, Long>> ids = new AtomicReference<>();
+
+        private Dictionary(String entityName, Supplier<List<T>> loadAll,
+                           Function<Collection<String>, List<T>> loadByNames, Function<T, String> nameOf,
+                           Function<T, Long> idOf, BiFunction<Long, String, T> reference) {
+            this.entityName = entityName;
+            this.loadAll = loadAll;
+            this.loadByNames = loadByNames;
+            this.nameOf = nameOf;
+            this.idOf = idOf;
+            this.reference = reference;
+        }
+
+        private Map<String, T> resolve(Collection<String> names) {
+            Map<String, Long> snapshot = ids.get() != null ? ids.get() : loadAll();
+            List<String> missing = names.stream()
+                    .filter(Objects::nonNull)
+                    .filter(name -> !snapshot.containsKey(name))
+                    .distinct()
+                    .toList();
+            Map<String, Long> known = snapshot;
+            if (!missing.isEmpty()) {
+                Map<String, Long> loaded = index(loadByNames.apply(missing));
+                logger.debug("Справочник " + entityName + " дочитан: " + loaded.keySet());
+                Map<String, Long> merged = new HashMap<>(snapshot);
+                merged.putAll(loaded);
+                known = Collections.unmodifiableMap(merged);
+                ids.compareAndSet(snapshot, known);
+            }
+            Map<String, T> result = new HashMap<>();
+            for (String name : names) {
+                if (name == null || !known.containsKey(name)) {
+                    throw new NoSuchElementException(entityName + " not found: " + name);
+                }
+                result.put(name, reference.apply(known.get(name), name));
+            }
+            return result;
+        }
+
+        private Map<String, Long> loadAll() {
+            Map<String, Long> loaded = index(loadAll.get());
+            logger.debug("Справочник " + entityName + " загружен: " + loaded.size());
+            ids.compareAndSet(null, loaded);
+            return loaded;
+        }
+
+        private Map<String, Long> index(List<T> entities) {
+            Map<String, Long> index = new HashMap<>();
+            for (T entity : entities) {
+                index.putIfAbsent(nameOf.apply(entity), idOf.apply(entity));
+            }
+            return Collections.unmodifiableMap(index);
+        }
+
+        private void evict() {
+            ids.set(null);
+        }
+    }
+}
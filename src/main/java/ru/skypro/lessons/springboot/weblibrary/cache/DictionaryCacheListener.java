@@ -0,0 +1,45 @@
+package ru.skypro.lessons.springboot.weblibrary.cache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.skypro.lessons.springboot.weblibrary.model.Department;
+import ru.skypro.lessons.springboot.weblibrary.model.Position;
+
+public class DictionaryCacheListener {
+
+    private final ObjectProvider<DictionaryCache> dictionaryCache;
+
+    public DictionaryCacheListener(ObjectProvider<DictionaryCache> dictionaryCache) {
+        this.dictionaryCache = dictionaryCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Object entity) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(entity);
+                }
+            });
+        } else {
+            evict(entity);
+        }
+    }
+
+    private void evict(Object entity) {
+        dictionaryCache.ifAvailable(cache -> {
+            if (entity instanceof Position) {
+                cache.evictPositions();
+            } else if (entity instanceof Department) {
+                cache.evictDepartments();
+            }
+        });
+    }
+}
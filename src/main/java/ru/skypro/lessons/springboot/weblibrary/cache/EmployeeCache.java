@@ -0,0 +1,66 @@
+package ru.skypro.lessons.springboot.weblibrary.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeDTO;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Кэш EmployeeDTO по id. Инвалидация вызывается после фиксации записи в БД: если в этот момент
+ * по тому же id идёт загрузка, Caffeine дожидается её окончания и удаляет загруженное значение.
+ */
+@Component
+public class EmployeeCache {
+
+    public static final String CACHE_NAME = "employees";
+
+    private final Cache<Long, EmployeeDTO> cache;
+
+    public EmployeeCache(@Value("${app.cache.employees.maximum-size:10000}") long maximumSize,
+                         @Value("${app.cache.employees.expire-after-write:10m}") Duration expireAfterWrite,
+                         MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public EmployeeDTO get(Long id, Function<Long, EmployeeDTO> loader) {
+        return cache.get(id, loader);
+    }
+
+    public Map<Long, EmployeeDTO> getAll(Collection<Long> ids,
+                                         Function<Set<? extends Long>, Map<Long, EmployeeDTO>> loader) {
+        return cache.getAll(ids, loader);
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll(Collection<Long> ids) {
+        cache.invalidateAll(ids.stream()
+                .filter(Objects::nonNull)
+                .toList());
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    Cache<Long, EmployeeDTO> getCache() {
+        return cache;
+    }
+}
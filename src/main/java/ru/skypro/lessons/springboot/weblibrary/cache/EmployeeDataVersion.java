@@ -0,0 +1,40 @@
+package ru.skypro.lessons.springboot.weblibrary.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Монотонная версия данных о сотрудниках. Сервис увеличивает её после каждой записи; отчёт,
+ * построенный при той же версии, можно отдать повторно. Отсчёт начинается с текущего времени
+ * в микросекундах, поэтому версии после перезапуска не совпадают с прежними. Записи в обход
+ * сервиса (другие экземпляры, SQL) версию не меняют.
+ */
+@Component
+public class EmployeeDataVersion {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Увеличивает версию после фиксации текущей транзакции, чтобы отчёт, начатый до коммита,
+     * не получил новую версию со старыми данными. Вне транзакции версия меняется сразу.
+     */
+    public void increment() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            version.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                version.incrementAndGet();
+            }
+        });
+    }
+}
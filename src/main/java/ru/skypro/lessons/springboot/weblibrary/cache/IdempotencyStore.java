@@ -0,0 +1,221 @@
+package ru.skypro.lessons.springboot.weblibrary.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skypro.lessons.springboot.weblibrary.model.IdempotencyRecord;
+import ru.skypro.lessons.springboot.weblibrary.repository.IdempotencyRecordRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ответы на запросы с заголовком {@code Idempotency-Key}: повтор запроса с тем же ключом получает
+ * сохранённый ответ, а работа не выполняется второй раз. Ответы хранятся в Caffeine и в таблице
+ * {@code idempotency_key} в течение {@code app.idempotency.ttl}; при промахе локального кэша
+ * (другой экземпляр, перезапуск) ответ берётся из БД.
+ * <p>
+ * Ключ занимается вставкой строки до начала работы, поэтому из одновременных повторов работу
+ * выполняет только один. Повторы на этом же экземпляре дожидаются его ответа, на другом
+ * экземпляре — получают 409. Если работа завершилась ошибкой, ключ освобождается. Если процесс
+ * упал между записью данных и сохранением ответа, ключ остаётся занятым до истечения TTL.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Cache<String, StoredResponse> responses;
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${app.idempotency.maximum-size:10000}") long maximumSize) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @FunctionalInterface
+    public interface Request {
+        ResponseEntity<String> execute() throws IOException;
+    }
+
+    /**
+     * Выполняет запрос один раз для ключа; {@code fingerprint} отличает другой запрос с тем же ключом.
+     * Без ключа запрос выполняется как обычно.
+     */
+    public ResponseEntity<String> execute(String key, String fingerprint, Request request) throws IOException {
+        if (key == null) {
+            return request.execute();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Некорректный ключ идемпотентности");
+        }
+        StoredResponse cached = responses.getIfPresent(key);
+        if (cached != null) {
+            return replay(key, fingerprint, cached);
+        }
+        CompletableFuture<StoredResponse> own = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            return replay(key, fingerprint, await(running));
+        }
+        try {
+            StoredResponse stored = claim(key, fingerprint);
+            if (stored != null) {
+                responses.put(key, stored);
+                own.complete(stored);
+                return replay(key, fingerprint, stored);
+            }
+            ResponseEntity<String> response;
+            try {
+                response = request.execute();
+            } catch (IOException | RuntimeException e) {
+                transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.releaseKey(key));
+                throw e;
+            }
+            StoredResponse result = new StoredResponse(fingerprint, response.getStatusCode().value(), response.getBody());
+            transactionTemplate.executeWithoutResult(status ->
+                    idempotencyRecordRepository.saveResponse(key, result.status(), result.body()));
+            responses.put(key, result);
+            own.complete(result);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    @Scheduled(cron = "${app.idempotency.purge-cron:0 15 * * * *}")
+    public void purgeExpired() {
+        Integer deletedCount = transactionTemplate.execute(status ->
+                idempotencyRecordRepository.deleteExpired(LocalDateTime.now()));
+        logger.info("Удалено просроченных ключей идемпотентности: " + deletedCount);
+    }
+
+    public static String fingerprint(String... parts) {
+        MessageDigest digest = sha256();
+        for (String part : parts) {
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Отпечаток запроса с телом из потока: содержимое хешируется по мере чтения и целиком
+     * в памяти не держится. Поток закрывается.
+     */
+    public static String fingerprint(String request, InputStream content) throws IOException {
+        MessageDigest digest = sha256();
+        digest.update(request.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        try (DigestInputStream inputStream = new DigestInputStream(content, digest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Занимает ключ в БД и возвращает {@code null} или, если ключ уже занят, сохранённый ответ.
+     */
+    private StoredResponse claim(String key, String fingerprint) {
+        try {
+            return transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                idempotencyRecordRepository.deleteExpiredKey(key, now);
+                IdempotencyRecord record = idempotencyRecordRepository.findById(key).orElse(null);
+                if (record != null) {
+                    return toStoredResponse(key, record);
+                }
+                idempotencyRecordRepository.insertKey(key, fingerprint, now.plus(ttl));
+                return null;
+            });
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Ключ идемпотентности занят другим запросом: " + key);
+            return transactionTemplate.execute(status -> idempotencyRecordRepository.findById(key)
+                    .map(record -> toStoredResponse(key, record))
+                    .orElseThrow(() -> new ConcurrencyFailureException(
+                            "Запрос с ключом " + key + " выполняется, повторите позже")));
+        }
+    }
+
+    private static StoredResponse toStoredResponse(String key, IdempotencyRecord record) {
+        if (record.getResponseStatus() == null) {
+            throw new ConcurrencyFailureException("Запрос с ключом " + key + " ещё выполняется");
+        }
+        return new StoredResponse(record.getFingerprint(), record.getResponseStatus(), record.getResponseBody());
+    }
+
+    private static StoredResponse await(CompletableFuture<StoredResponse> running) throws IOException {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static ResponseEntity<String> replay(String key, String fingerprint, StoredResponse stored) {
+        if (!Objects.equals(stored.fingerprint(), fingerprint)) {
+            throw new IllegalArgumentException("Ключ идемпотентности " + key + " уже использован для другого запроса");
+        }
+        logger.debug("Повтор запроса с ключом идемпотентности: " + key);
+        return ResponseEntity.status(stored.status())
+                .header(REPLAYED_HEADER, "true")
+                .body(stored.body());
+    }
+
+    private record StoredResponse(String fingerprint, int status, String body) {
+    }
+}
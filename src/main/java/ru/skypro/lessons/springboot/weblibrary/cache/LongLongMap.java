@@ -0,0 +1,134 @@
+package ru.skypro.lessons.springboot.weblibrary.cache;
+
+import java.util.Arrays;
+
+/**
+ * Хеш-таблица long → long без упаковки: открытая адресация с линейным пробированием. Ключи
+ * должны быть неотрицательными, {@code -1} обозначает пустую ячейку. Не потокобезопасна.
+ */
+final class LongLongMap {
+
+    static final long MISSING = Long.MIN_VALUE;
+
+    private static final long EMPTY = -1L;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    LongLongMap() {
+        this(16);
+    }
+
+    LongLongMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize) * 2 - 1) << 1;
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new long[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean containsKey(long key) {
+        return keys[indexOf(key)] == key;
+    }
+
+    /**
+     * Возвращает значение ключа или {@link #MISSING}, если ключа нет; проверяйте через
+     * {@link #containsKey(long)}, если значение может совпасть с {@code MISSING}.
+     */
+    long get(long key) {
+        int index = indexOf(key);
+        return keys[index] == key ? values[index] : MISSING;
+    }
+
+    void put(long key, long value) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Ключ должен быть неотрицательным: " + key);
+        }
+        int index = indexOf(key);
+        if (keys[index] != key) {
+            keys[index] = key;
+            size++;
+        }
+        values[index] = value;
+        if (size * 4 > keys.length * 3) {
+            resize();
+        }
+    }
+
+    boolean remove(long key) {
+        int mask = keys.length - 1;
+        int index = indexOf(key);
+        if (keys[index] != key) {
+            return false;
+        }
+        // Сдвигаем следующие элементы цепочки, чтобы поиск не обрывался на освободившейся ячейке.
+        int hole = index;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = slot(keys[next], mask);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+        return true;
+    }
+
+    boolean contentEquals(LongLongMap other) {
+        return size == other.size && containsAll(other);
+    }
+
+    /**
+     * Проверяет, что каждый ключ {@code other} есть в этой таблице с тем же значением.
+     */
+    boolean containsAll(LongLongMap other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            long key = other.keys[i];
+            if (key != EMPTY && (!containsKey(key) || get(key) != other.values[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(long key) {
+        int mask = keys.length - 1;
+        int index = slot(key, mask);
+        while (keys[index] != EMPTY && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        values = new long[oldValues.length * 2];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int index = slot(oldKeys[i], mask);
+                while (keys[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
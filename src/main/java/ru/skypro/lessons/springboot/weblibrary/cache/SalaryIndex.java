@@ -0,0 +1,283 @@
+package ru.skypro.lessons.springboot.weblibrary.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skypro.lessons.springboot.weblibrary.repository.EmployeeRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Отсортированный индекс (salary, id) в памяти. Ключ упакован в long: зарплата в старших
+ * 32 битах, id в младших, поэтому индекс поддерживает только id от 0 до 2^32 - 1; встретив
+ * другой id, индекс выключается с ошибкой в логе, и запросы идут в БД. Пока индекс не
+ * построен или выключен ({@code app.salary-index.enabled}), запросы идут в БД.
+ * <p>
+ * Ключи хранятся в {@link SortedLongSet}, зарплаты и версии по id — в {@link LongLongMap}:
+ * изменение зарплаты стоит O(log n), перестроение из БД — сортировка и построение дерева за O(n).
+ * <p>
+ * Изменения приходят из afterCommit разных транзакций и могут прийти не по порядку, поэтому
+ * каждое несёт версию строки сотрудника, и изменение со старой версией отбрасывается. Удаление
+ * оставляет версию {@link #REMOVED} до перестроения, чтобы опоздавшее изменение не вернуло
+ * удалённого сотрудника. Раз в {@code app.salary-index.verify-interval} индекс сверяется с БД.
+ */
+@Component
+public class SalaryIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalaryIndex.class);
+    private static final long MAX_ID = 0xFFFFFFFFL;
+    private static final long REMOVED = Long.MAX_VALUE;
+
+    private final boolean enabled;
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private SortedLongSet keys = new SortedLongSet();
+    private LongLongMap salaries = new LongLongMap();
+    private LongLongMap versions = new LongLongMap();
+    private List<Runnable> journal;
+    private volatile boolean ready;
+
+    public SalaryIndex(@Value("${app.salary-index.enabled:false}") boolean enabled,
+                       EmployeeRepository employeeRepository, PlatformTransactionManager transactionManager) {
+        this.enabled = enabled;
+        this.employeeRepository = employeeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.salary-index.verify-interval:PT10M}",
+            initialDelayString = "${app.salary-index.verify-interval:PT10M}")
+    public void scheduledVerify() {
+        if (enabled && ready) {
+            verify();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void rebuild() {
+        logger.info("Построение индекса зарплат");
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            journal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Snapshot snapshot;
+        try {
+            snapshot = loadSnapshot();
+        } catch (RuntimeException e) {
+            logger.error("Ошибка построения индекса зарплат", e);
+            snapshot = null;
+        }
+        lock.writeLock().lock();
+        try {
+            if (snapshot != null) {
+                keys = snapshot.toSortedSet();
+                salaries = snapshot.salaries;
+                versions = snapshot.versions;
+                ready = true;
+                journal.forEach(Runnable::run);
+            }
+            journal = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (ready) {
+            logger.info("Индекс зарплат построен: " + salaries.size());
+        }
+    }
+
+    public boolean verify() {
+        Snapshot snapshot = loadSnapshot();
+        boolean consistent;
+        lock.readLock().lock();
+        try {
+            consistent = ready && snapshot != null && snapshot.salaries.contentEquals(salaries)
+                    && versions.containsAll(snapshot.versions);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!consistent) {
+            logger.warn("Индекс зарплат расходится с БД, выполняется перестроение");
+            rebuild();
+        }
+        return consistent;
+    }
+
+    /**
+     * Ставит зарплату сотрудника с версией его строки после изменения; изменение со старой
+     * версией, чем уже известная индексу, не применяется.
+     */
+    public void put(Long id, int salary, long version) {
+        if (!enabled || id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (journal != null) {
+                journal.add(() -> doPut(id, salary, version));
+            }
+            doPut(id, salary, version);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (journal != null) {
+                journal.add(() -> doRemove(id));
+            }
+            doRemove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long[] findIdsWithSalaryGreaterThan(int salary) {
+        lock.readLock().lock();
+        try {
+            if (salary == Integer.MAX_VALUE) {
+                return new long[0];
+            }
+            return idsFrom(key(salary + 1, 0));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long[] findIdsWithHighestSalary() {
+        lock.readLock().lock();
+        try {
+            if (keys.size() == 0) {
+                return new long[0];
+            }
+            int maxSalary = (int) (keys.max() >> 32);
+            return idsFrom(key(maxSalary, 0));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void doPut(Long id, int salary, long version) {
+        if (!ready && journal == null) {
+            return;
+        }
+        if (id < 0 || id > MAX_ID) {
+            logger.error("Индекс зарплат выключен: id сотрудника не помещается в 32 бита: " + id);
+            ready = false;
+            keys = new SortedLongSet();
+            salaries = new LongLongMap();
+            versions = new LongLongMap();
+            return;
+        }
+        if (versions.containsKey(id) && versions.get(id) > version) {
+            return;
+        }
+        versions.put(id, version);
+        if (salaries.containsKey(id)) {
+            int previous = (int) salaries.get(id);
+            if (previous == salary) {
+                return;
+            }
+            keys.remove(key(previous, id));
+        }
+        salaries.put(id, salary);
+        keys.add(key(salary, id));
+    }
+
+    private void doRemove(Long id) {
+        if ((!ready && journal == null) || id < 0 || id > MAX_ID) {
+            return;
+        }
+        if (salaries.containsKey(id)) {
+            keys.remove(key((int) salaries.get(id), id));
+            salaries.remove(id);
+        }
+        versions.put(id, REMOVED);
+    }
+
+    private long[] idsFrom(long fromKey) {
+        long[] ids = keys.tailFrom(fromKey);
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] &= MAX_ID;
+        }
+        return ids;
+    }
+
+    private Snapshot loadSnapshot() {
+        return transactionTemplate.execute(status -> {
+            Snapshot snapshot = new Snapshot();
+            try (Stream<Object[]> rows = employeeRepository.streamIdsAndSalaries()) {
+                Iterator<Object[]> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    Object[] row = iterator.next();
+                    Long id = (Long) row[0];
+                    Integer salary = (Integer) row[1];
+                    Long version = (Long) row[2];
+                    if (id < 0 || id > MAX_ID) {
+                        logger.error("Индекс зарплат недоступен: id сотрудника не помещается в 32 бита: " + id);
+                        return null;
+                    }
+                    snapshot.add(id, salary, version);
+                }
+            }
+            return snapshot;
+        });
+    }
+
+    private static long key(int salary, long id) {
+        return ((long) salary << 32) | id;
+    }
+
+    private static final class Snapshot {
+
+        private long[] keys = new long[1024];
+        private int size;
+        private final LongLongMap salaries = new LongLongMap(1024);
+        private final LongLongMap versions = new LongLongMap(1024);
+
+        private void add(Long id, Integer salary, Long version) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size + (size >> 1));
+            }
+            keys[size++] = key(salary, id);
+            salaries.put(id, salary);
+            versions.put(id, version);
+        }
+
+        private SortedLongSet toSortedSet() {
+            Arrays.sort(keys, 0, size);
+            return new SortedLongSet(keys, size);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package ru.skypro.lessons.springboot.weblibrary.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skypro.lessons.springboot.weblibrary.repository.EmployeeBatchRepository;
+import ru.skypro.lessons.springboot.weblibrary.repository.EmployeeRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Отложенная запись зарплат ({@code app.salary-write-behind.enabled}). Изменения копятся в
+ * {@link ConcurrentHashMap} по id сотрудника — из нескольких изменений одного сотрудника в БД
+ * попадает только последнее — и пишутся JDBC batch'ем раз в {@code flush-interval} или как
+ * только накопится {@code max-batch-size} сотрудников.
+ * <p>
+ * Гарантии: изменение, на которое клиент получил 202, до сброса живёт только в памяти. При
+ * штатной остановке буфер сбрасывается, при падении процесса теряется не больше одного интервала
+ * изменений: сброс по времени идёт в собственном потоке буфера, и долгие задачи общего
+ * планировщика (отчёты, сверка, очистка) его не задерживают. Пока изменение не сброшено, чтение
+ * возвращает прежнюю зарплату. Сброс не проверяет версию строки и увеличивает её, поэтому PUT с
+ * устаревшим If-Match после сброса получит 409, а изменения уже удалённых сотрудников
+ * отбрасываются. Прямая запись зарплаты (PUT, PATCH, повышение) до своего UPDATE сбрасывает
+ * отложенные значения своих сотрудников через {@link #flush(Collection)}, поэтому устаревшее
+ * значение из буфера не перетирает более позднее изменение. При ошибке записи пачка возвращается в буфер, не перетирая более новые
+ * значения, и повторяется при следующем сбросе.
+ */
+@Component
+public class SalaryWriteBehindBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalaryWriteBehindBuffer.class);
+
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final Duration flushInterval;
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EmployeeCache employeeCache;
+    private final SalaryIndex salaryIndex;
+    private final DepartmentStatsStore departmentStatsStore;
+    private final EmployeeDataVersion employeeDataVersion;
+    private final Map<Long, Integer> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Counter receivedCounter;
+    private final Counter coalescedCounter;
+    private final Counter writtenCounter;
+    private final Timer flushTimer;
+    private ScheduledExecutorService flushExecutor;
+
+    public SalaryWriteBehindBuffer(@Value("${app.salary-write-behind.enabled:false}") boolean enabled,
+                                   @Value("${app.salary-write-behind.max-batch-size:500}") int maxBatchSize,
+                                   @Value("${app.salary-write-behind.flush-interval:PT1S}") Duration flushInterval,
+                                   EmployeeRepository employeeRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   EmployeeCache employeeCache, SalaryIndex salaryIndex,
+                                   DepartmentStatsStore departmentStatsStore,
+                                   EmployeeDataVersion employeeDataVersion,
+                                   MeterRegistry meterRegistry) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Размер пачки зарплат должен быть положительным: " + maxBatchSize);
+        }
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.flushInterval = flushInterval;
+        this.employeeRepository = employeeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.employeeCache = employeeCache;
+        this.salaryIndex = salaryIndex;
+        this.departmentStatsStore = departmentStatsStore;
+        this.employeeDataVersion = employeeDataVersion;
+        this.receivedCounter = meterRegistry.counter("salary.buffer.received");
+        this.coalescedCounter = meterRegistry.counter("salary.buffer.coalesced");
+        this.writtenCounter = meterRegistry.counter("salary.buffer.written");
+        this.flushTimer = meterRegistry.timer("salary.buffer.flush");
+        Gauge.builder("salary.buffer.pending", pending, Map::size)
+                .register(meterRegistry);
+        Gauge.builder("salary.buffer.coalescing.ratio", this, buffer -> buffer.getCoalescingRatio())
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Ставит зарплату сотрудника в очередь на запись. Если накопилась полная пачка и сброс
+     * никто не выполняет, сбрасывает буфер в вызывающем потоке.
+     */
+    public void offer(Long id, int salary) {
+        if (pending.put(id, salary) != null) {
+            coalescedCounter.increment();
+        }
+        receivedCounter.increment();
+        if (pending.size() >= maxBatchSize && flushLock.tryLock()) {
+            try {
+                doFlush();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Доля изменений, которые были перекрыты более новым изменением того же сотрудника до записи в БД.
+     */
+    public double getCoalescingRatio() {
+        double received = receivedCounter.count();
+        return received == 0 ? 0 : coalescedCounter.count() / received;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "salary-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        flushExecutor.scheduleWithFixedDelay(this::scheduledFlush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void scheduledFlush() {
+        try {
+            if (!pending.isEmpty()) {
+                flush();
+            }
+        } catch (RuntimeException e) {
+            // Исключение из задачи отменило бы все следующие сбросы.
+            logger.error("Ошибка сброса отложенных зарплат", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+        }
+        if (!pending.isEmpty()) {
+            logger.info("Сброс отложенных зарплат при остановке: " + pending.size());
+            flush();
+        }
+    }
+
+    /**
+     * Записывает все накопленные изменения и возвращает число обновлённых сотрудников.
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            return doFlush();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Сразу записывает отложенные зарплаты указанных сотрудников. Вызывается до прямой записи
+     * зарплаты в транзакции, которая ещё не меняла этих сотрудников: пачка пишется в отдельной
+     * транзакции, а блокировка сброса дожидается уже начатой записи. При ошибке значения
+     * возвращаются в буфер, а исключение пробрасывается, чтобы прямая запись не выполнилась
+     * раньше отложенной.
+     */
+    public void flush(Collection<Long> ids) {
+        if (!enabled || pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            Map<Long, Integer> batch = new LinkedHashMap<>();
+            for (Long id : ids) {
+                Integer salary = pending.remove(id);
+                if (salary != null) {
+                    batch.put(id, salary);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                writeBatch(batch);
+            } catch (RuntimeException e) {
+                batch.forEach(pending::putIfAbsent);
+                throw e;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int doFlush() {
+        int written = 0;
+        int batches = pending.size() / maxBatchSize + 1;
+        for (int i = 0; i < batches && !pending.isEmpty(); i++) {
+            Map<Long, Integer> batch = drain();
+            Timer.Sample sample = Timer.start();
+            try {
+                written += writeBatch(batch);
+            } catch (RuntimeException e) {
+                logger.error("Ошибка записи отложенных зарплат, пачка возвращена в буфер: " + batch.size(), e);
+                batch.forEach(pending::putIfAbsent);
+                break;
+            } finally {
+                sample.stop(flushTimer);
+            }
+        }
+        return written;
+    }
+
+    // Значение удаляется из буфера атомарно, поэтому изменение, пришедшее во время записи пачки,
+    // остаётся в буфере и попадёт в БД следующим сбросом, не перетёртое старым значением.
+    private Map<Long, Integer> drain() {
+        Map<Long, Integer> batch = new LinkedHashMap<>();
+        Iterator<Long> ids = pending.keySet().iterator();
+        while (ids.hasNext() && batch.size() < maxBatchSize) {
+            Long id = ids.next();
+            Integer salary = pending.remove(id);
+            if (salary != null) {
+                batch.put(id, salary);
+            }
+        }
+        return batch;
+    }
+
+    private int writeBatch(Map<Long, Integer> batch) {
+        List<EmployeeBatchRepository.EmployeeUpdate> updates = new ArrayList<>(batch.size());
+        batch.forEach((id, salary) ->
+                updates.add(new EmployeeBatchRepository.EmployeeUpdate(id, null, salary, null, null, null)));
+        boolean refreshStores = salaryIndex.isReady() || departmentStatsStore.isReady();
+        List<Long> writtenIds = new ArrayList<>(batch.size());
+        List<Object[]> rows = transactionTemplate.execute(status -> {
+            int[] updatedCounts = employeeRepository.batchUpdateEmployees(updates);
+            for (int i = 0; i < updatedCounts.length; i++) {
+                if (updatedCounts[i] != 0) {
+                    writtenIds.add(updates.get(i).id());
+                }
+            }
+            return refreshStores && !writtenIds.isEmpty()
+                    ? employeeRepository.findEmployeeRowsByIds(writtenIds) : List.<Object[]>of();
+        });
+        if (writtenIds.size() < batch.size()) {
+            logger.warn("Отложенные зарплаты удалённых сотрудников отброшены: " + (batch.size() - writtenIds.size()));
+        }
+        if (!writtenIds.isEmpty()) {
+            employeeDataVersion.increment();
+            employeeCache.invalidateAll(writtenIds);
+            if (rows != null) {
+                for (Object[] row : rows) {
+                    salaryIndex.put((Long) row[0], (Integer) row[2], (Long) row[5]);
+                    departmentStatsStore.put((Long) row[0], (String) row[4], (Integer) row[2]);
+                }
+            }
+        }
+        writtenCounter.increment(writtenIds.size());
+        logger.debug("Отложенные зарплаты записаны: " + writtenIds.size());
+        return writtenIds.size();
+    }
+}
@@ -0,0 +1,199 @@
+package ru.skypro.lessons.springboot.weblibrary.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Отсортированное множество long без упаковки — декартово дерево (treap) на параллельных
+ * массивах. Вставка и удаление за ожидаемое O(log n), построение из отсортированного массива
+ * за O(n). Не потокобезопасно.
+ */
+final class SortedLongSet {
+
+    private static final int NIL = -1;
+
+    private long[] keys;
+    private int[] priorities;
+    private int[] left;
+    private int[] right;
+    private int root = NIL;
+    private int size;
+    private int allocated;
+    private int free = NIL;
+    private int splitLeft;
+    private int splitRight;
+
+    SortedLongSet() {
+        this(new long[0], 0);
+    }
+
+    /**
+     * Строит множество из первых {@code size} элементов отсортированного массива без повторов.
+     */
+    SortedLongSet(long[] sortedKeys, int size) {
+        int capacity = Math.max(16, size);
+        keys = Arrays.copyOf(sortedKeys, capacity);
+        priorities = new int[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+        allocated = size;
+        this.size = size;
+        int[] stack = new int[size];
+        int top = 0;
+        for (int node = 0; node < size; node++) {
+            priorities[node] = ThreadLocalRandom.current().nextInt();
+            right[node] = NIL;
+            int last = NIL;
+            while (top > 0 && priorities[stack[top - 1]] < priorities[node]) {
+                last = stack[--top];
+            }
+            left[node] = last;
+            if (top > 0) {
+                right[stack[top - 1]] = node;
+            }
+            stack[top++] = node;
+        }
+        root = top > 0 ? stack[0] : NIL;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Добавляет ключ, которого ещё нет в множестве.
+     */
+    void add(long key) {
+        int node = allocate(key);
+        split(root, key);
+        root = merge(merge(splitLeft, node), splitRight);
+        size++;
+    }
+
+    boolean remove(long key) {
+        split(root, key);
+        int less = splitLeft;
+        int removed = splitRight;
+        int greater = NIL;
+        if (key != Long.MAX_VALUE) {
+            split(splitRight, key + 1);
+            removed = splitLeft;
+            greater = splitRight;
+        }
+        root = merge(less, greater);
+        if (removed == NIL) {
+            return false;
+        }
+        left[removed] = free;
+        free = removed;
+        size--;
+        return true;
+    }
+
+    long max() {
+        if (root == NIL) {
+            throw new IllegalStateException("Множество пусто");
+        }
+        int node = root;
+        while (right[node] != NIL) {
+            node = right[node];
+        }
+        return keys[node];
+    }
+
+    /**
+     * Возвращает по возрастанию все ключи, не меньшие {@code fromKey}.
+     */
+    long[] tailFrom(long fromKey) {
+        long[] result = new long[16];
+        int count = 0;
+        int[] stack = new int[32];
+        int depth = 0;
+        int node = root;
+        while (node != NIL) {
+            if (keys[node] >= fromKey) {
+                stack = push(stack, depth++, node);
+                node = left[node];
+            } else {
+                node = right[node];
+            }
+        }
+        while (depth > 0) {
+            int current = stack[--depth];
+            if (count == result.length) {
+                result = Arrays.copyOf(result, count * 2);
+            }
+            result[count++] = keys[current];
+            node = right[current];
+            while (node != NIL) {
+                stack = push(stack, depth++, node);
+                node = left[node];
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    // Делит поддерево на ключи < key (splitLeft) и >= key (splitRight).
+    private void split(int node, long key) {
+        if (node == NIL) {
+            splitLeft = NIL;
+            splitRight = NIL;
+            return;
+        }
+        if (keys[node] < key) {
+            split(right[node], key);
+            right[node] = splitLeft;
+            splitLeft = node;
+        } else {
+            split(left[node], key);
+            left[node] = splitRight;
+            splitRight = node;
+        }
+    }
+
+    // Все ключи поддерева lower меньше ключей поддерева upper.
+    private int merge(int lower, int upper) {
+        if (lower == NIL) {
+            return upper;
+        }
+        if (upper == NIL) {
+            return lower;
+        }
+        if (priorities[lower] > priorities[upper]) {
+            right[lower] = merge(right[lower], upper);
+            return lower;
+        }
+        left[upper] = merge(lower, left[upper]);
+        return upper;
+    }
+
+    private int allocate(long key) {
+        int node;
+        if (free != NIL) {
+            node = free;
+            free = left[node];
+        } else {
+            if (allocated == keys.length) {
+                int capacity = allocated + (allocated >> 1);
+                keys = Arrays.copyOf(keys, capacity);
+                priorities = Arrays.copyOf(priorities, capacity);
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+            }
+            node = allocated++;
+        }
+        keys[node] = key;
+        priorities[node] = ThreadLocalRandom.current().nextInt();
+        left[node] = NIL;
+        right[node] = NIL;
+        return node;
+    }
+
+    private static int[] push(int[] stack, int depth, int node) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth] = node;
+        return stack;
+    }
+}
@@ -1,43 +1,108 @@
 package ru.skypro.lessons.springboot.weblibrary.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.skypro.lessons.springboot.weblibrary.cache.IdempotencyStore;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeBulkPatchDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeBulkPatchResultDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeCursorPageDTO;
 import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeDTO;
 import ru.skypro.lessons.springboot.weblibrary.dto.PositionDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportInfoDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportJobDTO;
+import ru.skypro.lessons.springboot.weblibrary.report.ColumnarReportWriter;
+import ru.skypro.lessons.springboot.weblibrary.report.CsvReportWriter;
+import ru.skypro.lessons.springboot.weblibrary.report.JsonReportWriter;
+import ru.skypro.lessons.springboot.weblibrary.report.ReportWriters;
 import ru.skypro.lessons.springboot.weblibrary.service.EmployeeService;
 import ru.skypro.lessons.springboot.weblibrary.service.PositionService;
+import ru.skypro.lessons.springboot.weblibrary.service.ReportJobService;
 
 import java.io.IOException;
+import java.net.URI;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Controller
 @RequestMapping("/employees")
 public class EmployeeController {
 
+    private static final long MAX_REPORT_JOB_WAIT_SECONDS = 30;
+    // Атрибуты Tomcat: файл отправляется ядром через FileChannel.transferTo, минуя кучу.
+    private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
     private final EmployeeService employeeService;
     private final PositionService positionService;
+    private final ReportJobService reportJobService;
+    private final ReportWriters reportWriters;
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public EmployeeController(EmployeeService employeeService, PositionService positionService) {
+    public EmployeeController(EmployeeService employeeService, PositionService positionService,
+                              ReportJobService reportJobService, ReportWriters reportWriters,
+                              IdempotencyStore idempotencyStore, ObjectMapper objectMapper) {
         this.employeeService = employeeService;
         this.positionService = positionService;
+        this.reportJobService = reportJobService;
+        this.reportWriters = reportWriters;
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/")
-    public ResponseEntity<String> addEmployee(@RequestBody List<EmployeeDTO> employeeDTO) {
-        employeeService.addEmployee(employeeDTO);
-        return ResponseEntity.ok("Команда выполнена успешно");
+    public ResponseEntity<String> addEmployee(
+            @RequestBody List<EmployeeDTO> employeeDTO,
+            @RequestHeader(value = IdempotencyStore.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey)
+            throws IOException {
+        String fingerprint = idempotencyKey == null
+                ? null : IdempotencyStore.fingerprint("POST /employees/", objectMapper.writeValueAsString(employeeDTO));
+        return idempotencyStore.execute(idempotencyKey, fingerprint, () -> {
+            employeeService.addEmployee(employeeDTO);
+            return ResponseEntity.ok("Команда выполнена успешно");
+        });
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<EmployeeDTO> editEmployee(@PathVariable Long id, @RequestBody EmployeeDTO newEmployeeDTO) {
-        return ResponseEntity.ok(employeeService.editEmployee(id, newEmployeeDTO));
+    public ResponseEntity<EmployeeDTO> editEmployee(@PathVariable Long id, @RequestBody EmployeeDTO newEmployeeDTO,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        newEmployeeDTO.setVersion(parseVersion(ifMatch));
+        return withVersion(employeeService.editEmployee(id, newEmployeeDTO));
+    }
+
+    @PutMapping("/{id}/salary")
+    public ResponseEntity<Void> updateSalary(@PathVariable Long id, @RequestParam("salary") int salary) {
+        return employeeService.updateSalary(id, salary)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.accepted().build();
+    }
+
+    @PatchMapping
+    public ResponseEntity<EmployeeBulkPatchResultDTO> patchEmployees(@RequestBody EmployeeBulkPatchDTO bulkPatch) {
+        return ResponseEntity.ok(employeeService.patchEmployees(bulkPatch));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Map<String, Integer>> deleteEmployees(
+            @RequestBody(required = false) List<Long> ids,
+            @RequestParam(value = "department", required = false) String departmentName,
+            @RequestParam(value = "position", required = false) String positionName) {
+        return ResponseEntity.ok(Map.of("deleted", employeeService.deleteEmployees(ids, departmentName, positionName)));
     }
 
     @DeleteMapping("/{id}")
@@ -53,15 +118,40 @@ public class EmployeeController {
 
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<String> loadEmployeesFromFileAndSave(
-            @RequestParam("file") MultipartFile file) throws IOException {
-        employeeService.addEmployee(employeeService.loadEmployeesFromFile(file));
-        return ResponseEntity.ok("Команда выполнена успешно");
+            @RequestParam("file") MultipartFile file,
+            @RequestHeader(value = IdempotencyStore.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey)
+            throws IOException {
+        // Содержимое хешируется потоком и только для запросов с ключом: без ключа отпечаток не нужен.
+        String fingerprint = idempotencyKey == null
+                ? null : IdempotencyStore.fingerprint("POST /employees/upload", file.getInputStream());
+        return idempotencyStore.execute(idempotencyKey, fingerprint, () -> {
+            employeeService.importEmployeesFromFile(file);
+            return ResponseEntity.ok("Команда выполнена успешно");
+        });
     }
 
     @PostMapping("/report")
-    public ResponseEntity<String> getReportByDepartment() throws IOException {
-        Long reportId = employeeService.getReportByDepartment();
-        return ResponseEntity.ok("Идентификатор (id) сохраненного отчёта: " + reportId);
+    public ResponseEntity<ReportJobDTO> getReportByDepartment() {
+        ReportJobDTO job = reportJobService.submitDepartmentReport();
+        return ResponseEntity.accepted()
+                .location(URI.create("/employees/report/jobs/" + job.getJobId()))
+                .body(job);
+    }
+
+    @GetMapping("/report/jobs/{jobId}")
+    public DeferredResult<ResponseEntity<ReportJobDTO>> getReportJob(
+            @PathVariable String jobId,
+            @RequestParam(value = "wait", defaultValue = "0") long waitSeconds) {
+        ReportJobDTO job = reportJobService.getJob(jobId);
+        long timeout = TimeUnit.SECONDS.toMillis(Math.min(Math.max(waitSeconds, 0), MAX_REPORT_JOB_WAIT_SECONDS));
+        DeferredResult<ResponseEntity<ReportJobDTO>> result = new DeferredResult<>(timeout,
+                () -> ResponseEntity.ok(reportJobService.getJob(jobId)));
+        if (timeout == 0 || job.getStatus().isFinished()) {
+            result.setResult(ResponseEntity.ok(job));
+        } else {
+            reportJobService.awaitJob(jobId).thenAccept(finished -> result.setResult(ResponseEntity.ok(finished)));
+        }
+        return result;
     }
 
 
@@ -80,9 +170,17 @@ public class EmployeeController {
         return ResponseEntity.ok(employeeService.getAllEmployees());
     }
 
+    @GetMapping(value = "/all/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllEmployees() {
+        StreamingResponseBody body = employeeService::writeAllEmployees;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<EmployeeDTO> getEmployeeById(@PathVariable Long id) {
-        return ResponseEntity.ok(employeeService.getEmployeeById(id));
+        return withVersion(employeeService.getEmployeeById(id));
     }
 
     @GetMapping("/salary/higherThan")
@@ -103,9 +201,118 @@ public class EmployeeController {
         return ResponseEntity.ok(employeeService.getEmployeesByPage(page));
     }
 
+    @GetMapping("/page/cursor")
+    public ResponseEntity<EmployeeCursorPageDTO> getEmployeesAfterCursor(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(employeeService.getEmployeesAfterCursor(cursor, size));
+    }
+
+    @GetMapping("/reports")
+    public ResponseEntity<Page<ReportInfoDTO>> getReports(
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(employeeService.getReports(page, size));
+    }
+
+    @GetMapping("/report/latest")
+    public ResponseEntity<Resource> getLatestReportAndDownload(HttpServletRequest request) throws IOException {
+        boolean acceptsGzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        return withSendfile(employeeService.getLatestReportResponse(acceptsGzip), request);
+    }
+
     @GetMapping("/report/{id}")
-    public ResponseEntity<ByteArrayResource> getReportByIdAndDownload(@PathVariable Long id) throws IOException {
-        employeeService.generateJsonFileFromReport(id);
-        return ResponseEntity.ok(employeeService.getReportResponseById(id).getBody());
+    public ResponseEntity<Resource> getReportByIdAndDownload(@PathVariable Long id, HttpServletRequest request)
+            throws IOException {
+        boolean acceptsGzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        return withSendfile(employeeService.getReportResponseById(id, acceptsGzip), request);
+    }
+
+    // Выгрузки в других форматах — отдельные обработчики: их тело StreamingResponseBody, а не Resource.
+    // Если в Accept есть CSV или колоночный формат, выбор между ними и JSON по q-значениям делает
+    // ReportWriters; JSON тогда отдаётся потоком, без gzip и Range.
+    @GetMapping(value = "/report/{id}", params = {"format", "format!=" + JsonReportWriter.FORMAT})
+    public ResponseEntity<StreamingResponseBody> exportReportByFormat(@PathVariable Long id,
+                                                                      @RequestParam("format") String format)
+            throws IOException {
+        return employeeService.exportReportById(id, reportWriters.resolve(format, null));
+    }
+
+    @GetMapping(value = "/report/{id}",
+            produces = {CsvReportWriter.MEDIA_TYPE_VALUE, ColumnarReportWriter.MEDIA_TYPE_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportReportByAccept(@PathVariable Long id,
+                                                                      @RequestHeader(HttpHeaders.ACCEPT) String accept)
+            throws IOException {
+        return employeeService.exportReportById(id, reportWriters.resolve(null, accept));
+    }
+
+    private static ResponseEntity<Resource> withSendfile(ResponseEntity<Resource> response,
+                                                         HttpServletRequest request) throws IOException {
+        Resource resource = response.getBody();
+        if (resource == null || !resource.isFile() || request.getHeader(HttpHeaders.RANGE) != null
+                || !Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+            return response;
+        }
+        long contentLength = resource.contentLength();
+        request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, resource.getFile().getAbsolutePath());
+        request.setAttribute(SENDFILE_START_ATTRIBUTE, 0L);
+        request.setAttribute(SENDFILE_END_ATTRIBUTE, contentLength);
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentLength(contentLength)
+                .build();
+    }
+
+    private static ResponseEntity<EmployeeDTO> withVersion(EmployeeDTO employeeDTO) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (employeeDTO.getVersion() != null) {
+            response.eTag("\"" + employeeDTO.getVersion() + "\"");
+        }
+        return response.body(employeeDTO);
+    }
+
+    private static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.valueOf(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректный заголовок If-Match: " + ifMatch);
+        }
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            boolean accepted = true;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        accepted = Double.parseDouble(parameter.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        accepted = false;
+                    }
+                }
+            }
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+                gzip = accepted;
+            } else if (name.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return gzip != null ? gzip : Boolean.TRUE.equals(wildcard);
     }
 }
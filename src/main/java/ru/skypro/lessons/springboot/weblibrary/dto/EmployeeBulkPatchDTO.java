@@ -0,0 +1,34 @@
+package ru.skypro.lessons.springboot.weblibrary.dto;
+
+import java.util.List;
+
+public class EmployeeBulkPatchDTO {
+
+    private List<EmployeePatchDTO> patches;
+
+    private SalaryRaiseDTO salaryRaise;
+
+    public EmployeeBulkPatchDTO() {
+    }
+
+    public EmployeeBulkPatchDTO(List<EmployeePatchDTO> patches, SalaryRaiseDTO salaryRaise) {
+        this.patches = patches;
+        this.salaryRaise = salaryRaise;
+    }
+
+    public List<EmployeePatchDTO> getPatches() {
+        return patches;
+    }
+
+    public void setPatches(List<EmployeePatchDTO> patches) {
+        this.patches = patches;
+    }
+
+    public SalaryRaiseDTO getSalaryRaise() {
+        return salaryRaise;
+    }
+
+    public void setSalaryRaise(SalaryRaiseDTO salaryRaise) {
+        this.salaryRaise = salaryRaise;
+    }
+}
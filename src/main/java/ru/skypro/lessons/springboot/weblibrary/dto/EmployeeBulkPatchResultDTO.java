@@ -0,0 +1,34 @@
+package ru.skypro.lessons.springboot.weblibrary.dto;
+
+import java.util.List;
+
+public class EmployeeBulkPatchResultDTO {
+
+    private int updatedCount;
+
+    private List<EmployeePatchResultDTO> results;
+
+    public EmployeeBulkPatchResultDTO() {
+    }
+
+    public EmployeeBulkPatchResultDTO(int updatedCount, List<EmployeePatchResultDTO> results) {
+        this.updatedCount = updatedCount;
+        this.results = results;
+    }
+
+    public int getUpdatedCount() {
+        return updatedCount;
+    }
+
+    public void setUpdatedCount(int updatedCount) {
+        this.updatedCount = updatedCount;
+    }
+
+    public List<EmployeePatchResultDTO> getResults() {
+        return results;
+    }
+
+    public void setResults(List<EmployeePatchResultDTO> results) {
+        this.results = results;
+    }
+}
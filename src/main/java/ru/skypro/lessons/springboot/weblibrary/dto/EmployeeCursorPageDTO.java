@@ -0,0 +1,54 @@
+package ru.skypro.lessons.springboot.weblibrary.dto;
+
+import java.util.List;
+
+public class EmployeeCursorPageDTO {
+
+    private List<EmployeeDTO> content;
+
+    private String nextCursor;
+
+    private boolean hasNext;
+
+    public EmployeeCursorPageDTO() {
+    }
+
+    public EmployeeCursorPageDTO(List<EmployeeDTO> content, String nextCursor, boolean hasNext) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    public List<EmployeeDTO> getContent() {
+        return content;
+    }
+
+    public void setContent(List<EmployeeDTO> content) {
+        this.content = content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeeCursorPageDTO{" +
+                "content=" + content +
+                ", nextCursor='" + nextCursor + '\'' +
+                ", hasNext=" + hasNext +
+                '}';
+    }
+}
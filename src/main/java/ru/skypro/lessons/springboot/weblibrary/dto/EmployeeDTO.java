@@ -1,10 +1,15 @@
 package ru.skypro.lessons.springboot.weblibrary.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class EmployeeDTO {
     private String name;
     private int salary;
     private String positionName;
     private String departmentName;
+    // Версия строки для оптимистической блокировки; наружу передаётся через ETag/If-Match.
+    @JsonIgnore
+    private Long version;
 
     public EmployeeDTO() {
     }
@@ -16,6 +21,11 @@ public class EmployeeDTO {
         this.departmentName = departmentName;
     }
 
+    public EmployeeDTO(String name, int salary, String positionName, String departmentName, Long version) {
+        this(name, salary, positionName, departmentName);
+        this.version = version;
+    }
+
 
     public String getName() {
         return name;
@@ -49,6 +59,14 @@ public class EmployeeDTO {
         this.departmentName = departmentName;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "EmployeeDTO{" +
@@ -56,6 +74,7 @@ public class EmployeeDTO {
                 ", salary=" + salary +
                 ", positionName='" + positionName + '\'' +
                 ", departmentName='" + departmentName + '\'' +
+                ", version=" + version +
                 '}';
     }
 }
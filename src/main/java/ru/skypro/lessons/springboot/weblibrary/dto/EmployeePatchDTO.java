@@ -0,0 +1,93 @@
+package ru.skypro.lessons.springboot.weblibrary.dto;
+
+/**
+ * Частичное изменение сотрудника: {@code null} в поле оставляет прежнее значение,
+ * {@code version} — ожидаемая версия строки (необязательна).
+ */
+public class EmployeePatchDTO {
+
+    private Long id;
+
+    private String name;
+
+    private Integer salary;
+
+    private String positionName;
+
+    private String departmentName;
+
+    private Long version;
+
+    public EmployeePatchDTO() {
+    }
+
+    public EmployeePatchDTO(Long id, String name, Integer salary, String positionName, String departmentName,
+                            Long version) {
+        this.id = id;
+        this.name = name;
+        this.salary = salary;
+        this.positionName = positionName;
+        this.departmentName = departmentName;
+        this.version = version;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getSalary() {
+        return salary;
+    }
+
+    public void setSalary(Integer salary) {
+        this.salary = salary;
+    }
+
+    public String getPositionName() {
+        return positionName;
+    }
+
+    public void setPositionName(String positionName) {
+        this.positionName = positionName;
+    }
+
+    public String getDepartmentName() {
+        return departmentName;
+    }
+
+    public void setDepartmentName(String departmentName) {
+        this.departmentName = departmentName;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeePatchDTO{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", salary=" + salary +
+                ", positionName='" + positionName + '\'' +
+                ", departmentName='" + departmentName + '\'' +
+                ", version=" + version +
+                '}';
+    }
+}
@@ -0,0 +1,32 @@
+package ru.skypro.lessons.springboot.weblibrary.dto;
+
+public class EmployeePatchResultDTO {
+
+    private Long id;
+
+    private EmployeePatchStatus status;
+
+    public EmployeePatchResultDTO() {
+    }
+
+    public EmployeePatchResultDTO(Long id, EmployeePatchStatus status) {
+        this.id = id;
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public EmployeePatchStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(EmployeePatchStatus status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,7 @@
+package ru.skypro.lessons.springboot.weblibrary.dto;
+
+public enum EmployeePatchStatus {
+    UPDATED,
+    NOT_FOUND,
+    CONFLICT
+}
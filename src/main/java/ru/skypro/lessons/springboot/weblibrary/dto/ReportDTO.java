@@ -2,6 +2,7 @@ package ru.skypro.lessons.springboot.weblibrary.dto;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.util.List;
 
 public class ReportDTO implements Serializable {
 
@@ -15,6 +16,14 @@ public class ReportDTO implements Serializable {
 
     private BigDecimal averageSalary;
 
+    private Integer salaryP50;
+
+    private Integer salaryP90;
+
+    private Integer salaryP99;
+
+    private List<SalaryBucketDTO> salaryHistogram;
+
     public ReportDTO() {}
     public String getDepartmentName() {return departmentName;}
 
@@ -43,6 +52,27 @@ public class ReportDTO implements Serializable {
         this.averageSalary = averageSalary;
     }
 
+    public Integer getSalaryP50() {return salaryP50;}
+
+    public void setSalaryP50(Integer salaryP50) {
+        this.salaryP50 = salaryP50;
+    }
+    public Integer getSalaryP90() {return salaryP90;}
+
+    public void setSalaryP90(Integer salaryP90) {
+        this.salaryP90 = salaryP90;
+    }
+    public Integer getSalaryP99() {return salaryP99;}
+
+    public void setSalaryP99(Integer salaryP99) {
+        this.salaryP99 = salaryP99;
+    }
+    public List<SalaryBucketDTO> getSalaryHistogram() {return salaryHistogram;}
+
+    public void setSalaryHistogram(List<SalaryBucketDTO> salaryHistogram) {
+        this.salaryHistogram = salaryHistogram;
+    }
+
     @Override
     public String toString() {
         return "ReportDTO{" +
@@ -51,6 +81,9 @@ public class ReportDTO implements Serializable {
                 ", maxSalary=" + maxSalary +
                 ", minSalary=" + minSalary +
                 ", averageSalary=" + averageSalary +
+                ", salaryP50=" + salaryP50 +
+                ", salaryP90=" + salaryP90 +
+                ", salaryP99=" + salaryP99 +
                 '}';
     }
 }
@@ -0,0 +1,78 @@
+package ru.skypro.lessons.springboot.weblibrary.dto;
+
+import java.time.LocalDateTime;
+
+public class ReportInfoDTO {
+
+    private Long id;
+
+    private String fileName;
+
+    private LocalDateTime createdAt;
+
+    private Long sizeBytes;
+
+    private String checksum;
+
+    public ReportInfoDTO() {
+    }
+
+    public ReportInfoDTO(Long id, String fileName, LocalDateTime createdAt, Long sizeBytes, String checksum) {
+        this.id = id;
+        this.fileName = fileName;
+        this.createdAt = createdAt;
+        this.sizeBytes = sizeBytes;
+        this.checksum = checksum;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(Long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
+    @Override
+    public String toString() {
+        return "ReportInfoDTO{" +
+                "id=" + id +
+                ", fileName='" + fileName + '\'' +
+                ", createdAt=" + createdAt +
+                ", sizeBytes=" + sizeBytes +
+                ", checksum='" + checksum + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,64 @@
+package ru.skypro.lessons.springboot.weblibrary.dto;
+
+public class ReportJobDTO {
+
+    private String jobId;
+
+    private ReportJobStatus status;
+
+    private Long reportId;
+
+    private String error;
+
+    public ReportJobDTO() {
+    }
+
+    public ReportJobDTO(String jobId, ReportJobStatus status, Long reportId, String error) {
+        this.jobId = jobId;
+        this.status = status;
+        this.reportId = reportId;
+        this.error = error;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public ReportJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReportJobStatus status) {
+        this.status = status;
+    }
+
+    public Long getReportId() {
+        return reportId;
+    }
+
+    public void setReportId(Long reportId) {
+        this.reportId = reportId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    @Override
+    public String toString() {
+        return "ReportJobDTO{" +
+                "jobId='" + jobId + '\'' +
+                ", status=" + status +
+                ", reportId=" + reportId +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
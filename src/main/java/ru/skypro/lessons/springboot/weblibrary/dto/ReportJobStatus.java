@@ -0,0 +1,12 @@
+package ru.skypro.lessons.springboot.weblibrary.dto;
+
+public enum ReportJobStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == DONE || this == FAILED;
+    }
+}
@@ -0,0 +1,54 @@
+package ru.skypro.lessons.springboot.weblibrary.dto;
+
+import java.io.Serializable;
+
+public class SalaryBucketDTO implements Serializable {
+
+    private long fromSalary;
+
+    private long toSalary;
+
+    private long employeeCount;
+
+    public SalaryBucketDTO() {
+    }
+
+    public SalaryBucketDTO(long fromSalary, long toSalary, long employeeCount) {
+        this.fromSalary = fromSalary;
+        this.toSalary = toSalary;
+        this.employeeCount = employeeCount;
+    }
+
+    public long getFromSalary() {
+        return fromSalary;
+    }
+
+    public void setFromSalary(long fromSalary) {
+        this.fromSalary = fromSalary;
+    }
+
+    public long getToSalary() {
+        return toSalary;
+    }
+
+    public void setToSalary(long toSalary) {
+        this.toSalary = toSalary;
+    }
+
+    public long getEmployeeCount() {
+        return employeeCount;
+    }
+
+    public void setEmployeeCount(long employeeCount) {
+        this.employeeCount = employeeCount;
+    }
+
+    @Override
+    public String toString() {
+        return "SalaryBucketDTO{" +
+                "fromSalary=" + fromSalary +
+                ", toSalary=" + toSalary +
+                ", employeeCount=" + employeeCount +
+                '}';
+    }
+}
@@ -0,0 +1,58 @@
+package ru.skypro.lessons.springboot.weblibrary.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Изменение зарплаты на {@code percent} процентов для всех сотрудников отдела и/или должности;
+ * без фильтров — для всей компании.
+ */
+public class SalaryRaiseDTO {
+
+    private String departmentName;
+
+    private String positionName;
+
+    private BigDecimal percent;
+
+    public SalaryRaiseDTO() {
+    }
+
+    public SalaryRaiseDTO(String departmentName, String positionName, BigDecimal percent) {
+        this.departmentName = departmentName;
+        this.positionName = positionName;
+        this.percent = percent;
+    }
+
+    public String getDepartmentName() {
+        return departmentName;
+    }
+
+    public void setDepartmentName(String departmentName) {
+        this.departmentName = departmentName;
+    }
+
+    public String getPositionName() {
+        return positionName;
+    }
+
+    public void setPositionName(String positionName) {
+        this.positionName = positionName;
+    }
+
+    public BigDecimal getPercent() {
+        return percent;
+    }
+
+    public void setPercent(BigDecimal percent) {
+        this.percent = percent;
+    }
+
+    @Override
+    public String toString() {
+        return "SalaryRaiseDTO{" +
+                "departmentName='" + departmentName + '\'' +
+                ", positionName='" + positionName + '\'' +
+                ", percent=" + percent +
+                '}';
+    }
+}
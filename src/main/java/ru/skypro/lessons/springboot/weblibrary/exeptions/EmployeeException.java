@@ -1,5 +1,7 @@
 package ru.skypro.lessons.springboot.weblibrary.exeptions;
 
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -8,6 +10,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 public class EmployeeException {
@@ -21,6 +24,25 @@ public class EmployeeException {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Ошибка ввода/вывода: " + ioException.getMessage());
     }
 
+    @ExceptionHandler
+    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException illegalArgumentException) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Некорректный запрос: " + illegalArgumentException.getMessage());
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<String> handleConcurrencyFailureException(
+            ConcurrencyFailureException concurrencyFailureException) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("Конфликт изменений: " + concurrencyFailureException.getMessage());
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<String> handleRejectedExecutionException(RejectedExecutionException rejectedExecutionException) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body("Очередь задач переполнена, повторите запрос позже");
+    }
+
     @ExceptionHandler
     public ResponseEntity<String> handleSQLException(SQLException sqlException) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Ошибка SQL: " + sqlException.getMessage());
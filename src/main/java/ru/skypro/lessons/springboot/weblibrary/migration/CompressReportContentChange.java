@@ -0,0 +1,75 @@
+package ru.skypro.lessons.springboot.weblibrary.migration;
+
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Переносит report.content (text) в report.content_gzip, сжимая каждую строку gzip.
+ */
+public class CompressReportContentChange implements CustomTaskChange {
+
+    private static final int BATCH_SIZE = 100;
+
+    private int convertedCount;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        JdbcConnection connection = (JdbcConnection) database.getConnection();
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, content FROM report WHERE content IS NOT NULL");
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE report SET content_gzip = ? WHERE id = ?");
+             ResultSet rows = select.executeQuery()) {
+            while (rows.next()) {
+                update.setBytes(1, gzip(rows.getString(2)));
+                update.setLong(2, rows.getLong(1));
+                update.addBatch();
+                if (++convertedCount % BATCH_SIZE == 0) {
+                    update.executeBatch();
+                }
+            }
+            update.executeBatch();
+        } catch (DatabaseException | SQLException | IOException e) {
+            throw new CustomChangeException("Ошибка сжатия содержимого отчётов", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Сжато отчётов: " + convertedCount;
+    }
+
+    @Override
+    public void setUp() {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream outputStream = new GZIPOutputStream(compressed)) {
+            outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -1,8 +1,10 @@
 package ru.skypro.lessons.springboot.weblibrary.model;
 
 import jakarta.persistence.*;
+import ru.skypro.lessons.springboot.weblibrary.cache.DictionaryCacheListener;
 
 @Entity
+@EntityListeners(DictionaryCacheListener.class)
 @Table(name = "department")
 public class Department {
     @Id
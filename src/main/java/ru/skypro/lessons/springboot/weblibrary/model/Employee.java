@@ -8,7 +8,8 @@ import jakarta.persistence.*;
 public class Employee {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_seq")
+    @SequenceGenerator(name = "employee_seq", sequenceName = "employee_seq", allocationSize = 50)
     private Long id;
     private String name;
     private int salary;
@@ -21,6 +22,9 @@ public class Employee {
     @JoinColumn(name = "department_id")
     private Department department;
 
+    @Version
+    private long version;
+
 
     public Employee(Long id, String name, int salary, Position position, Department department) {
         this.id = id;
@@ -56,6 +60,10 @@ public class Employee {
         this.department = department;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -1,7 +1,14 @@
 package ru.skypro.lessons.springboot.weblibrary.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
 
+import java.time.LocalDateTime;
+
+/**
+ * Метаданные отчёта. Сам отчёт лежит в файле {@link #fileName}, а содержимое старых отчётов —
+ * в отдельной таблице {@link ReportContent}, поэтому загрузка Report никогда не читает его.
+ */
 @Entity
 @Table(name = "report")
 public class Report {
@@ -12,22 +19,29 @@ public class Report {
     @Column(name = "file_name")
     private String fileName;
 
-    @Lob
-    @Column(name = "content", columnDefinition = "text")
-    private String content;
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    @Column(name = "checksum")
+    private String checksum;
+
+    @Column(name = "data_version")
+    private Long dataVersion;
 
     public Report() {
     }
 
-    public Report(Long id, String fileName, String content) {
+    public Report(Long id, String fileName) {
         this.id = id;
         this.fileName = fileName;
-        this.content = content;
     }
 
-    public Report(String fileName, String content) {
+    public Report(String fileName) {
         this.fileName = fileName;
-        this.content = content;
     }
 
     public Long getId() {
@@ -46,11 +60,46 @@ public class Report {
         this.fileName = fileName;
     }
 
-    public String getContent() {
-        return content;
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(Long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
+    public Long getDataVersion() {
+        return dataVersion;
+    }
+
+    public void setDataVersion(Long dataVersion) {
+        this.dataVersion = dataVersion;
     }
 
-    public void setContent(String content) {
-        this.content = content;
+    @Override
+    public String toString() {
+        return "Report{" +
+                "id=" + id +
+                ", fileName='" + fileName + '\'' +
+                ", createdAt=" + createdAt +
+                ", sizeBytes=" + sizeBytes +
+                ", dataVersion=" + dataVersion +
+                '}';
     }
 }
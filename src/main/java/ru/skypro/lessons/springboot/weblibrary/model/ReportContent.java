@@ -0,0 +1,41 @@
+package ru.skypro.lessons.springboot.weblibrary.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Содержимое отчётов, созданных до хранения в файлах, сжатое gzip.
+ */
+@Entity
+@Table(name = "report_content")
+public class ReportContent {
+    @Id
+    @Column(name = "report_id")
+    private Long reportId;
+
+    @Column(name = "content_gzip", nullable = false)
+    private byte[] compressedContent;
+
+    public ReportContent() {
+    }
+
+    public ReportContent(Long reportId, byte[] compressedContent) {
+        this.reportId = reportId;
+        this.compressedContent = compressedContent;
+    }
+
+    public Long getReportId() {
+        return reportId;
+    }
+
+    public void setReportId(Long reportId) {
+        this.reportId = reportId;
+    }
+
+    public byte[] getCompressedContent() {
+        return compressedContent;
+    }
+
+    public void setCompressedContent(byte[] compressedContent) {
+        this.compressedContent = compressedContent;
+    }
+}
@@ -0,0 +1,135 @@
+package ru.skypro.lessons.springboot.weblibrary.report;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.SalaryBucketDTO;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Компактный двоичный формат по колонкам (big-endian, {@link DataOutputStream}). Строки идут
+ * блоками до {@value #BLOCK_SIZE} строк, внутри блока — по колонкам; блок из нуля строк
+ * завершает файл:
+ * <pre>
+ * int    magic 0x52504331 ("RPC1")
+ * блоки:
+ *   int    rowCount (0 — конец файла)
+ *   UTF    departmentName[rowCount]
+ *   long   employeeCount[rowCount]
+ *   int    minSalary[rowCount], maxSalary[rowCount]
+ *   long   averageSalary unscaled[rowCount], byte scale[rowCount]
+ *   int    salaryP50[rowCount], salaryP90[rowCount], salaryP99[rowCount]
+ *   int    histogramSize[rowCount], затем long from, long to, long count по всем корзинам подряд
+ * </pre>
+ * Отсутствующие значения: {@code -1} для количества и перцентилей, scale {@code -1} для средней.
+ * <p>
+ * Строки читаются за один проход: колонки блока копятся в буферах уже в двоичном виде и
+ * сбрасываются в ответ, когда блок заполнен, поэтому память не растёт с размером отчёта.
+ */
+@Component
+@Order(2)
+public class ColumnarReportWriter implements ReportWriter {
+
+    public static final String FORMAT = "columnar";
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.weblibrary.report-columnar";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+    public static final int MAGIC = 0x52504331;
+    public static final int BLOCK_SIZE = 1024;
+
+    private static final int MISSING = -1;
+
+    @Override
+    public String getFormat() {
+        return FORMAT;
+    }
+
+    @Override
+    public MediaType getMediaType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".rpc";
+    }
+
+    @Override
+    public void write(Rows rows, OutputStream outputStream) throws IOException {
+        DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(StreamUtils.nonClosing(outputStream)));
+        output.writeInt(MAGIC);
+        Columns columns = new Columns();
+        rows.forEach(reportDTO -> {
+            columns.add(reportDTO);
+            if (columns.rowCount == BLOCK_SIZE) {
+                columns.writeBlock(output);
+            }
+        });
+        if (columns.rowCount > 0) {
+            columns.writeBlock(output);
+        }
+        output.writeInt(0);
+        output.flush();
+    }
+
+    private static void writeNullable(DataOutputStream output, Integer value) throws IOException {
+        output.writeInt(value == null ? MISSING : value);
+    }
+
+    private static final class Columns {
+
+        private static final int COLUMN_COUNT = 11;
+
+        private final ByteArrayOutputStream[] buffers = new ByteArrayOutputStream[COLUMN_COUNT];
+        private final DataOutputStream[] outputs = new DataOutputStream[COLUMN_COUNT];
+        private int rowCount;
+
+        private Columns() {
+            for (int i = 0; i < COLUMN_COUNT; i++) {
+                buffers[i] = new ByteArrayOutputStream();
+                outputs[i] = new DataOutputStream(buffers[i]);
+            }
+        }
+
+        private void add(ReportDTO reportDTO) throws IOException {
+            BigDecimal average = reportDTO.getAverageSalary();
+            List<SalaryBucketDTO> histogram = reportDTO.getSalaryHistogram();
+            outputs[0].writeUTF(reportDTO.getDepartmentName() == null ? "" : reportDTO.getDepartmentName());
+            outputs[1].writeLong(reportDTO.getEmployeeCount() == null ? MISSING : reportDTO.getEmployeeCount());
+            outputs[2].writeInt(reportDTO.getMinSalary());
+            outputs[3].writeInt(reportDTO.getMaxSalary());
+            outputs[4].writeLong(average == null ? 0 : average.unscaledValue().longValueExact());
+            outputs[5].writeByte(average == null ? MISSING : average.scale());
+            writeNullable(outputs[6], reportDTO.getSalaryP50());
+            writeNullable(outputs[7], reportDTO.getSalaryP90());
+            writeNullable(outputs[8], reportDTO.getSalaryP99());
+            outputs[9].writeInt(histogram == null ? 0 : histogram.size());
+            if (histogram != null) {
+                for (SalaryBucketDTO bucket : histogram) {
+                    outputs[10].writeLong(bucket.getFromSalary());
+                    outputs[10].writeLong(bucket.getToSalary());
+                    outputs[10].writeLong(bucket.getEmployeeCount());
+                }
+            }
+            rowCount++;
+        }
+
+        private void writeBlock(DataOutputStream output) throws IOException {
+            output.writeInt(rowCount);
+            for (ByteArrayOutputStream buffer : buffers) {
+                buffer.writeTo(output);
+                buffer.reset();
+            }
+            rowCount = 0;
+        }
+    }
+}
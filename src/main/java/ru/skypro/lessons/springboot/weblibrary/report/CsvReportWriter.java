@@ -0,0 +1,108 @@
+package ru.skypro.lessons.springboot.weblibrary.report;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.SalaryBucketDTO;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * CSV по RFC 4180 с заголовком. Гистограмма записывается одной колонкой вида
+ * {@code from-to:count;from-to:count}.
+ */
+@Component
+@Order(1)
+public class CsvReportWriter implements ReportWriter {
+
+    public static final String FORMAT = "csv";
+    public static final String MEDIA_TYPE_VALUE = "text/csv";
+    public static final MediaType MEDIA_TYPE = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    static final String HEADER = "departmentName,employeeCount,minSalary,maxSalary,averageSalary," +
+            "salaryP50,salaryP90,salaryP99,salaryHistogram";
+
+    @Override
+    public String getFormat() {
+        return FORMAT;
+    }
+
+    @Override
+    public MediaType getMediaType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".csv";
+    }
+
+    @Override
+    public void write(Rows rows, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(HEADER);
+        writer.write("\r\n");
+        rows.forEach(reportDTO -> writeRow(writer, reportDTO));
+        writer.flush();
+    }
+
+    private static void writeRow(Writer writer, ReportDTO reportDTO) throws IOException {
+        writeField(writer, reportDTO.getDepartmentName());
+        writer.write(',');
+        writer.write(String.valueOf(reportDTO.getEmployeeCount()));
+        writer.write(',');
+        writer.write(String.valueOf(reportDTO.getMinSalary()));
+        writer.write(',');
+        writer.write(String.valueOf(reportDTO.getMaxSalary()));
+        writer.write(',');
+        writeNullable(writer, reportDTO.getAverageSalary() == null ? null : reportDTO.getAverageSalary().toPlainString());
+        writer.write(',');
+        writeNullable(writer, reportDTO.getSalaryP50());
+        writer.write(',');
+        writeNullable(writer, reportDTO.getSalaryP90());
+        writer.write(',');
+        writeNullable(writer, reportDTO.getSalaryP99());
+        writer.write(',');
+        writeHistogram(writer, reportDTO.getSalaryHistogram());
+        writer.write("\r\n");
+    }
+
+    private static void writeNullable(Writer writer, Object value) throws IOException {
+        if (value != null) {
+            writer.write(value.toString());
+        }
+    }
+
+    private static void writeHistogram(Writer writer, List<SalaryBucketDTO> histogram) throws IOException {
+        if (histogram == null) {
+            return;
+        }
+        for (int i = 0; i < histogram.size(); i++) {
+            SalaryBucketDTO bucket = histogram.get(i);
+            if (i > 0) {
+                writer.write(';');
+            }
+            writer.write(bucket.getFromSalary() + "-" + bucket.getToSalary() + ":" + bucket.getEmployeeCount());
+        }
+    }
+
+    private static void writeField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
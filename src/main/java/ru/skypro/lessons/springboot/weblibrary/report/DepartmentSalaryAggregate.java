@@ -0,0 +1,86 @@
+package ru.skypro.lessons.springboot.weblibrary.report;
+
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.SalaryBucketDTO;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Агрегат зарплат одного отдела, который накапливается за один проход по сотрудникам:
+ * точные количество, сумма, MIN/MAX и {@link SalarySketch} для перцентилей и гистограммы.
+ * Частичные агрегаты складываются через {@link #merge(DepartmentSalaryAggregate)}, значения
+ * убираются через {@link #remove(int, int, int)}.
+ */
+public class DepartmentSalaryAggregate {
+
+    public static final int HISTOGRAM_BINS = 10;
+    private static final int AVERAGE_SCALE = 2;
+
+    private long count;
+    private long sum;
+    private final SalarySketch sketch = new SalarySketch();
+
+    public void add(int salary) {
+        add(salary, 1);
+    }
+
+    public void add(int salary, long occurrences) {
+        count += occurrences;
+        sum += (long) salary * occurrences;
+        sketch.record(salary, occurrences);
+    }
+
+    /**
+     * Убирает одну зарплату; {@code remainingMin}/{@code remainingMax} — точные MIN/MAX
+     * оставшихся зарплат.
+     */
+    public void remove(int salary, int remainingMin, int remainingMax) {
+        sketch.remove(salary, remainingMin, remainingMax);
+        count--;
+        sum -= salary;
+    }
+
+    public void merge(DepartmentSalaryAggregate other) {
+        count += other.count;
+        sum += other.sum;
+        sketch.merge(other.sketch);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public int getMinSalary() {
+        return sketch.getMinValue();
+    }
+
+    public int getMaxSalary() {
+        return sketch.getMaxValue();
+    }
+
+    public ReportDTO toReportDTO(String departmentName) {
+        ReportDTO reportDTO = new ReportDTO();
+        reportDTO.setDepartmentName(departmentName);
+        reportDTO.setEmployeeCount(count);
+        reportDTO.setMaxSalary(sketch.getMaxValue());
+        reportDTO.setMinSalary(sketch.getMinValue());
+        reportDTO.setAverageSalary(BigDecimal.valueOf(sum)
+                .divide(BigDecimal.valueOf(count), AVERAGE_SCALE, RoundingMode.HALF_UP));
+        reportDTO.setSalaryP50(sketch.getValueAtPercentile(50));
+        reportDTO.setSalaryP90(sketch.getValueAtPercentile(90));
+        reportDTO.setSalaryP99(sketch.getValueAtPercentile(99));
+        List<SalaryBucketDTO> histogram = new ArrayList<>(HISTOGRAM_BINS);
+        for (long[] bin : sketch.getEqualWidthBins(HISTOGRAM_BINS)) {
+            histogram.add(new SalaryBucketDTO(bin[0], bin[1], bin[2]));
+        }
+        reportDTO.setSalaryHistogram(histogram);
+        return reportDTO;
+    }
+}
@@ -0,0 +1,56 @@
+package ru.skypro.lessons.springboot.weblibrary.report;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * JSON-массив строк отчёта; в этом формате отчёты хранятся, поэтому он используется по умолчанию.
+ */
+@Component
+@Order(0)
+public class JsonReportWriter implements ReportWriter {
+
+    public static final String FORMAT = "json";
+
+    private final ObjectMapper objectMapper;
+
+    public JsonReportWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String getFormat() {
+        return FORMAT;
+    }
+
+    @Override
+    public MediaType getMediaType() {
+        return MediaType.APPLICATION_JSON;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".json";
+    }
+
+    @Override
+    public void write(Rows rows, OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(ReportDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.createGenerator(StreamUtils.nonClosing(outputStream))) {
+            generator.writeStartArray();
+            rows.forEach(reportDTO -> writer.writeValue(generator, reportDTO));
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package ru.skypro.lessons.springboot.weblibrary.report;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportDTO;
+import ru.skypro.lessons.springboot.weblibrary.repository.EmployeeRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Считает отчёт по отделам параллельно: диапазон id сотрудников делится на части, каждая часть
+ * читается потоком в своей транзакции (и своём соединении) в отдельном {@link ForkJoinPool},
+ * частичные {@link DepartmentSalaryAggregate} складываются в памяти. Включается
+ * {@code app.report.partitioned.enabled}; число потоков не должно превышать размер пула соединений.
+ */
+@Component
+public class PartitionedReportEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionedReportEngine.class);
+    private static final int PARTITIONS_PER_THREAD = 4;
+
+    private final boolean enabled;
+    private final int parallelism;
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool pool;
+
+    public PartitionedReportEngine(@Value("${app.report.partitioned.enabled:false}") boolean enabled,
+                                   @Value("${app.report.partitioned.parallelism:4}") int parallelism,
+                                   EmployeeRepository employeeRepository,
+                                   PlatformTransactionManager transactionManager) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Число потоков отчёта должно быть положительным: " + parallelism);
+        }
+        this.enabled = enabled;
+        this.parallelism = parallelism;
+        this.employeeRepository = employeeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<ReportDTO> computeReport() {
+        List<Object[]> idRange = transactionTemplate.execute(status -> employeeRepository.findIdRange());
+        if (idRange == null || idRange.isEmpty() || idRange.get(0)[0] == null) {
+            return List.of();
+        }
+        long minId = ((Number) idRange.get(0)[0]).longValue();
+        long maxId = ((Number) idRange.get(0)[1]).longValue();
+        List<long[]> partitions = split(minId, maxId, parallelism * PARTITIONS_PER_THREAD);
+        logger.debug("Параллельный отчёт: id " + minId + ".." + maxId + ", частей: " + partitions.size());
+
+        List<CompletableFuture<Map<String, DepartmentSalaryAggregate>>> futures = partitions.stream()
+                .map(partition -> CompletableFuture.supplyAsync(
+                        () -> aggregatePartition(partition[0], partition[1]), pool))
+                .toList();
+        Map<String, DepartmentSalaryAggregate> merged = new TreeMap<>();
+        try {
+            for (CompletableFuture<Map<String, DepartmentSalaryAggregate>> future : futures) {
+                future.join().forEach((departmentName, aggregate) ->
+                        merged.merge(departmentName, aggregate, (left, right) -> {
+                            left.merge(right);
+                            return left;
+                        }));
+            }
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        List<ReportDTO> reportDTOs = new ArrayList<>(merged.size());
+        merged.forEach((departmentName, aggregate) -> reportDTOs.add(aggregate.toReportDTO(departmentName)));
+        return reportDTOs;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private Map<String, DepartmentSalaryAggregate> aggregatePartition(long fromId, long toId) {
+        return transactionTemplate.execute(status -> {
+            Map<String, DepartmentSalaryAggregate> aggregates = new HashMap<>();
+            try (Stream<Object[]> rows = employeeRepository.streamSalariesAndDepartmentsByIdRange(fromId, toId)) {
+                rows.forEach(row -> aggregates
+                        .computeIfAbsent((String) row[1], name -> new DepartmentSalaryAggregate())
+                        .add((Integer) row[0]));
+            }
+            return aggregates;
+        });
+    }
+
+    static List<long[]> split(long minId, long maxId, int partitionCount) {
+        long size = Math.max(1, (maxId - minId) / partitionCount + 1);
+        List<long[]> partitions = new ArrayList<>(partitionCount);
+        for (long from = minId; from <= maxId; from += size) {
+            partitions.add(new long[]{from, Math.min(maxId, from + size - 1)});
+            if (from > Long.MAX_VALUE - size) {
+                break;
+            }
+        }
+        return partitions;
+    }
+}
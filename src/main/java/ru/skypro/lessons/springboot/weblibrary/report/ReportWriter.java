@@ -0,0 +1,44 @@
+package ru.skypro.lessons.springboot.weblibrary.report;
+
+import org.springframework.http.MediaType;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Формат выгрузки отчёта по отделам. Реализация получает строки отчёта по одной через
+ * {@link Rows}, пишет их прямо в переданный поток и не закрывает его.
+ */
+public interface ReportWriter {
+
+    String getFormat();
+
+    MediaType getMediaType();
+
+    String getFileExtension();
+
+    void write(Rows rows, OutputStream outputStream) throws IOException;
+
+    default void write(List<ReportDTO> reportDTOs, OutputStream outputStream) throws IOException {
+        write(consumer -> {
+            for (ReportDTO reportDTO : reportDTOs) {
+                consumer.accept(reportDTO);
+            }
+        }, outputStream);
+    }
+
+    /**
+     * Источник строк отчёта: передаёт строки по одной, не загружая весь отчёт в память.
+     */
+    @FunctionalInterface
+    interface Rows {
+        void forEach(RowConsumer consumer) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface RowConsumer {
+        void accept(ReportDTO reportDTO) throws IOException;
+    }
+}
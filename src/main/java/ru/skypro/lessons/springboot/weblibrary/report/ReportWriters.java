@@ -0,0 +1,50 @@
+package ru.skypro.lessons.springboot.weblibrary.report;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Выбирает {@link ReportWriter} по параметру {@code format} или, если его нет, по заголовку
+ * {@code Accept} с учётом q-значений. Без подходящего формата отчёт отдаётся в JSON.
+ */
+@Component
+public class ReportWriters {
+
+    private final List<ReportWriter> writers;
+    private final ReportWriter defaultWriter;
+
+    public ReportWriters(List<ReportWriter> writers) {
+        this.writers = List.copyOf(writers);
+        this.defaultWriter = writers.stream()
+                .filter(writer -> JsonReportWriter.FORMAT.equals(writer.getFormat()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    public ReportWriter resolve(String format, String accept) {
+        if (format != null && !format.isBlank()) {
+            return writers.stream()
+                    .filter(writer -> writer.getFormat().equalsIgnoreCase(format.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Неизвестный формат отчёта: " + format));
+        }
+        if (accept == null || accept.isBlank()) {
+            return defaultWriter;
+        }
+        List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept).stream()
+                .filter(mediaType -> mediaType.getQualityValue() > 0)
+                .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+                .toList();
+        for (MediaType mediaType : mediaTypes) {
+            for (ReportWriter writer : writers) {
+                if (mediaType.includes(writer.getMediaType())) {
+                    return writer;
+                }
+            }
+        }
+        return defaultWriter;
+    }
+}
@@ -0,0 +1,164 @@
+package ru.skypro.lessons.springboot.weblibrary.report;
+
+import java.util.Arrays;
+
+/**
+ * Лог-линейная гистограмма зарплат в духе HdrHistogram: значения до 256 хранятся точно, дальше
+ * каждый интервал [2^k, 2^(k+1)) делится на 128 корзин, поэтому относительная погрешность
+ * перцентилей не превышает 1/128 (< 0,8%). Размер ограничен 3200 счётчиками на весь диапазон
+ * {@code int}, гистограммы складываются через {@link #merge(SalarySketch)}. Не потокобезопасна.
+ */
+public class SalarySketch {
+
+    static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int EXACT_LIMIT = SUB_BUCKET_COUNT << 1;
+    private static final int INITIAL_CAPACITY = EXACT_LIMIT;
+
+    private long[] counts = new long[INITIAL_CAPACITY];
+    private long totalCount;
+    private int minValue = Integer.MAX_VALUE;
+    private int maxValue = Integer.MIN_VALUE;
+
+    public void record(int value) {
+        record(value, 1);
+    }
+
+    public void record(int value, long count) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Зарплата не может быть отрицательной: " + value);
+        }
+        if (count <= 0) {
+            return;
+        }
+        int index = indexOf(value);
+        ensureCapacity(index + 1);
+        counts[index] += count;
+        totalCount += count;
+        minValue = Math.min(minValue, value);
+        maxValue = Math.max(maxValue, value);
+    }
+
+    /**
+     * Убирает одно ранее записанное значение. Точные MIN/MAX оставшихся значений по корзинам
+     * не восстановить, поэтому их передаёт вызывающий.
+     */
+    public void remove(int value, int remainingMinValue, int remainingMaxValue) {
+        int index = value < 0 ? -1 : indexOf(value);
+        if (index < 0 || index >= counts.length || counts[index] == 0) {
+            throw new IllegalArgumentException("Значение не записано в гистограмму: " + value);
+        }
+        counts[index]--;
+        totalCount--;
+        minValue = totalCount == 0 ? Integer.MAX_VALUE : remainingMinValue;
+        maxValue = totalCount == 0 ? Integer.MIN_VALUE : remainingMaxValue;
+    }
+
+    public void merge(SalarySketch other) {
+        if (other.totalCount == 0) {
+            return;
+        }
+        ensureCapacity(other.counts.length);
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        minValue = Math.min(minValue, other.minValue);
+        maxValue = Math.max(maxValue, other.maxValue);
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public int getMinValue() {
+        return minValue;
+    }
+
+    public int getMaxValue() {
+        return maxValue;
+    }
+
+    /**
+     * Перцентиль по ближайшему рангу: наименьшее значение, не меньше которого {@code percentile}
+     * процентов записей. Возвращает середину корзины, ограниченную точными MIN/MAX.
+     */
+    public int getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            throw new IllegalStateException("Гистограмма пуста");
+        }
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Перцентиль должен быть от 0 до 100: " + percentile);
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return representativeValue(i);
+            }
+        }
+        return maxValue;
+    }
+
+    /**
+     * Делит диапазон [MIN, MAX] на не более чем {@code binCount} интервалов одинаковой ширины и
+     * раскладывает по ним корзины гистограммы. Граница интервала определяется с той же
+     * погрешностью, что и перцентили.
+     */
+    public long[][] getEqualWidthBins(int binCount) {
+        if (totalCount == 0) {
+            return new long[0][];
+        }
+        long range = (long) maxValue - minValue + 1;
+        long width = Math.max(1, (range + binCount - 1) / binCount);
+        int bins = (int) ((range + width - 1) / width);
+        long[][] result = new long[bins][];
+        for (int bin = 0; bin < bins; bin++) {
+            long lowerBound = minValue + bin * width;
+            result[bin] = new long[]{lowerBound, Math.min(maxValue, lowerBound + width - 1), 0};
+        }
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                int bin = (int) ((representativeValue(i) - (long) minValue) / width);
+                result[bin][2] += counts[i];
+            }
+        }
+        return result;
+    }
+
+    static int indexOf(int value) {
+        if (value < EXACT_LIMIT) {
+            return value;
+        }
+        int shift = 31 - Integer.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + ((value >> shift) - SUB_BUCKET_COUNT);
+    }
+
+    static long lowerBoundOf(int index) {
+        if (index < EXACT_LIMIT) {
+            return index;
+        }
+        int shift = (index >> SUB_BUCKET_BITS) - 1;
+        return ((long) (index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT) << shift;
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < EXACT_LIMIT) {
+            return index;
+        }
+        int shift = (index >> SUB_BUCKET_BITS) - 1;
+        return lowerBoundOf(index) + (1L << shift) - 1;
+    }
+
+    private int representativeValue(int index) {
+        long middle = (lowerBoundOf(index) + upperBoundOf(index)) / 2;
+        return (int) Math.max(minValue, Math.min(maxValue, middle));
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (counts.length < capacity) {
+            counts = Arrays.copyOf(counts, Math.max(capacity, counts.length * 2));
+        }
+    }
+}
@@ -3,8 +3,12 @@ package ru.skypro.lessons.springboot.weblibrary.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.skypro.lessons.springboot.weblibrary.model.Department;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
     Optional<Department> findByName(String departmentName);
+
+    List<Department> findByNameIn(Collection<String> names);
 }
@@ -0,0 +1,29 @@
+package ru.skypro.lessons.springboot.weblibrary.repository;
+
+import java.util.List;
+
+/**
+ * Пакетные операции над сотрудниками через JDBC batch, которые не выражаются запросами Spring Data.
+ */
+public interface EmployeeBatchRepository {
+
+    /**
+     * Применяет частичные изменения одним JDBC batch в текущей транзакции. Возвращает число
+     * изменённых строк для каждого элемента в том же порядке.
+     */
+    int[] batchUpdateEmployees(List<EmployeeUpdate> updates);
+
+    /**
+     * Отправляет накопленные изменения в БД и очищает контекст персистентности, чтобы длинная
+     * транзакция не держала в памяти все сохранённые сущности.
+     */
+    void flushAndClear();
+
+    /**
+     * Частичное изменение: {@code null} оставляет прежнее значение, {@code null} в
+     * expectedVersion отключает проверку версии.
+     */
+    record EmployeeUpdate(Long id, String name, Integer salary, Long positionId, Long departmentId,
+                          Long expectedVersion) {
+    }
+}
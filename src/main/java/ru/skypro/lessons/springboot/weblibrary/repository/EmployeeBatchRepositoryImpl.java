@@ -0,0 +1,50 @@
+package ru.skypro.lessons.springboot.weblibrary.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.Types;
+import java.util.List;
+
+public class EmployeeBatchRepositoryImpl implements EmployeeBatchRepository {
+
+    private static final String UPDATE_EMPLOYEE = "UPDATE employee SET " +
+            "name = COALESCE(:name, name), " +
+            "salary = COALESCE(:salary, salary), " +
+            "position_id = COALESCE(:positionId, position_id), " +
+            "department_id = COALESCE(:departmentId, department_id), " +
+            "version = version + 1 " +
+            "WHERE id = :id AND (CAST(:expectedVersion AS BIGINT) IS NULL OR version = :expectedVersion)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public EmployeeBatchRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] batchUpdateEmployees(List<EmployeeUpdate> updates) {
+        SqlParameterSource[] parameters = updates.stream()
+                .map(update -> new MapSqlParameterSource()
+                        .addValue("id", update.id(), Types.BIGINT)
+                        .addValue("name", update.name(), Types.VARCHAR)
+                        .addValue("salary", update.salary(), Types.INTEGER)
+                        .addValue("positionId", update.positionId(), Types.BIGINT)
+                        .addValue("departmentId", update.departmentId(), Types.BIGINT)
+                        .addValue("expectedVersion", update.expectedVersion(), Types.BIGINT))
+                .toArray(SqlParameterSource[]::new);
+        return jdbcTemplate.batchUpdate(UPDATE_EMPLOYEE, parameters);
+    }
+
+    @Override
+    public void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
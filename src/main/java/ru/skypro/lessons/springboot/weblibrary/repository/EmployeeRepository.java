@@ -1,41 +1,138 @@
 package ru.skypro.lessons.springboot.weblibrary.repository;
 
-
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeDTO;
 import ru.skypro.lessons.springboot.weblibrary.model.Employee;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeBatchRepository {
+    String SELECT_EMPLOYEE_DTO = "SELECT new ru.skypro.lessons.springboot.weblibrary.dto.EmployeeDTO(" +
+            "e.name, e.salary, p.name, d.name) " +
+            "FROM Employee e LEFT JOIN e.position p LEFT JOIN e.department d ";
+
+    @Query(SELECT_EMPLOYEE_DTO)
+    List<EmployeeDTO> findAllEmployeeDTOs();
+
+    @Query(SELECT_EMPLOYEE_DTO + "WHERE p.name = :positionName")
+    List<EmployeeDTO> findEmployeeDTOsByPositionName(@Param("positionName") String positionName);
+
+    @Query(SELECT_EMPLOYEE_DTO + "WHERE e.salary > :compareSalary")
+    List<EmployeeDTO> findEmployeeDTOsBySalaryGreaterThan(@Param("compareSalary") int compareSalary);
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
-    List<Employee> findByPositionName(String positionName);
+    @Query(SELECT_EMPLOYEE_DTO + "WHERE e.salary = (SELECT MAX(m.salary) FROM Employee m)")
+    List<EmployeeDTO> findEmployeeDTOsWithHighestSalary();
 
-    List<Employee> findBySalaryGreaterThan(int compareSalary);
-    @Query(value = "SELECT * FROM employee " +
-            "WHERE salary = (SELECT MAX(salary) " +
-            "FROM employee)",
+    @Query("SELECT new ru.skypro.lessons.springboot.weblibrary.dto.EmployeeDTO(" +
+            "e.name, e.salary, p.name, d.name, e.version) " +
+            "FROM Employee e LEFT JOIN e.position p LEFT JOIN e.department d WHERE e.id = :id")
+    Optional<EmployeeDTO> findEmployeeDTOById(@Param("id") Long id);
+
+    /**
+     * Обновляет сотрудника одним запросом. {@code null} в positionId/departmentId оставляет
+     * прежнее значение, {@code null} в expectedVersion отключает проверку версии.
+     */
+    @Modifying
+    @Query(value = "UPDATE employee SET name = :name, salary = :salary, " +
+            "position_id = COALESCE(CAST(:positionId AS BIGINT), position_id), " +
+            "department_id = COALESCE(CAST(:departmentId AS BIGINT), department_id), " +
+            "version = version + 1 " +
+            "WHERE id = :id AND (CAST(:expectedVersion AS BIGINT) IS NULL OR version = :expectedVersion)",
+            nativeQuery = true)
+    int updateEmployee(@Param("id") Long id, @Param("name") String name, @Param("salary") int salary,
+                       @Param("positionId") Long positionId, @Param("departmentId") Long departmentId,
+                       @Param("expectedVersion") Long expectedVersion);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE employee SET salary = :salary, version = version + 1 WHERE id = :id",
             nativeQuery = true)
-    List<Employee> getEmployeesWithHighestSalary();
+    int updateSalary(@Param("id") Long id, @Param("salary") int salary);
+
+    @Query("SELECT e.id, e.name, e.salary, p.name, d.name, e.version " +
+            "FROM Employee e LEFT JOIN e.position p LEFT JOIN e.department d " +
+            "WHERE e.id > :lastId ORDER BY e.id")
+    List<Object[]> findEmployeeRowsAfter(@Param("lastId") Long lastId, Pageable pageable);
 
-    @Query("SELECT e FROM Employee e LEFT JOIN FETCH e.position LEFT JOIN FETCH e.department WHERE e.id = :id")
-    Optional<Employee> findEmployeeWithPosition(@Param("id") Long id);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_EMPLOYEE_DTO + "ORDER BY e.id")
+    Stream<EmployeeDTO> streamAllEmployeeDTOs();
 
-    Page<Employee> findAll(Pageable pageable);
+    @Query("SELECT e.id, e.name, e.salary, p.name, d.name, e.version " +
+            "FROM Employee e LEFT JOIN e.position p LEFT JOIN e.department d " +
+            "WHERE e.id IN :ids")
+    List<Object[]> findEmployeeRowsByIds(@Param("ids") Collection<Long> ids);
 
-    @Query(value = "SELECT d.name AS departmentName, " +
-            "COUNT(*) AS employeeCount, " +
-            "MAX(e.salary) AS maxSalary, " +
-            "MIN(e.salary) AS minSalary, " +
-            "AVG(e.salary) AS averageSalary " +
-            "FROM employee e " +
-            "JOIN department d ON e.department_id = d.id " +
-            "GROUP BY departmentName",
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT e.id, e.salary, e.version FROM Employee e")
+    Stream<Object[]> streamIdsAndSalaries();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT e.id, e.salary, d.name FROM Employee e JOIN e.department d")
+    Stream<Object[]> streamIdsSalariesAndDepartments();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT e.salary, d.name FROM Employee e JOIN e.department d WHERE e.id BETWEEN :fromId AND :toId")
+    Stream<Object[]> streamSalariesAndDepartmentsByIdRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Query("SELECT e.id FROM Employee e LEFT JOIN e.position p LEFT JOIN e.department d " +
+            "WHERE (:departmentName IS NULL OR d.name = :departmentName) " +
+            "AND (:positionName IS NULL OR p.name = :positionName) ORDER BY e.id")
+    List<Long> findIdsByDepartmentAndPosition(@Param("departmentName") String departmentName,
+                                              @Param("positionName") String positionName, Pageable pageable);
+
+    @Query("SELECT e.id FROM Employee e WHERE e.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Меняет зарплату на {@code factor} (1.05 — плюс 5%) одним запросом; {@code null} в фильтре
+     * означает «любой».
+     */
+    @Modifying
+    @Query(value = "UPDATE employee SET salary = CAST(ROUND(salary * CAST(:factor AS DECIMAL(12, 6))) AS INTEGER), " +
+            "version = version + 1 " +
+            "WHERE (CAST(:departmentName AS VARCHAR) IS NULL " +
+            "OR department_id IN (SELECT d.id FROM department d WHERE d.name = :departmentName)) " +
+            "AND (CAST(:positionName AS VARCHAR) IS NULL " +
+            "OR position_id IN (SELECT p.id FROM position p WHERE p.name = :positionName))",
             nativeQuery = true)
-    List<Object[]> getReportByDepartment();
+    int multiplySalaries(@Param("factor") BigDecimal factor, @Param("departmentName") String departmentName,
+                         @Param("positionName") String positionName);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Employee e WHERE e.id = :id")
+    int deleteEmployeeById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Employee e WHERE e.id IN :ids")
+    int deleteEmployeesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT MIN(e.id), MAX(e.id) FROM Employee e")
+    List<Object[]> findIdRange();
 
+    @Query("SELECT d.name, COUNT(e), SUM(e.salary), MIN(e.salary), MAX(e.salary) " +
+            "FROM Employee e JOIN e.department d GROUP BY d.name")
+    List<Object[]> getSalaryTotalsByDepartment();
 
-}
\ No newline at end of file
+    @Query(value = SELECT_EMPLOYEE_DTO,
+            countQuery = "SELECT COUNT(e) FROM Employee e")
+    Page<EmployeeDTO> findEmployeeDTOs(Pageable pageable);
+}
@@ -0,0 +1,38 @@
+package ru.skypro.lessons.springboot.weblibrary.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.skypro.lessons.springboot.weblibrary.model.IdempotencyRecord;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Занимает ключ; если строка с ключом уже есть, первичный ключ не даст вставить вторую.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_key (idempotency_key, fingerprint, expires_at) " +
+            "VALUES (:key, :fingerprint, :expiresAt)",
+            nativeQuery = true)
+    int insertKey(@Param("key") String key, @Param("fingerprint") String fingerprint,
+                  @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.responseStatus = :status, r.responseBody = :body WHERE r.key = :key")
+    int saveResponse(@Param("key") String key, @Param("status") int status, @Param("body") String body);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.responseStatus IS NULL")
+    int releaseKey(@Param("key") String key);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.expiresAt < :now")
+    int deleteExpiredKey(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
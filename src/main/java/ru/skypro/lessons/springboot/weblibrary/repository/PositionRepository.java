@@ -4,8 +4,12 @@ package ru.skypro.lessons.springboot.weblibrary.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.skypro.lessons.springboot.weblibrary.model.Position;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PositionRepository extends JpaRepository<Position, Long> {
     Optional<Position> findByName(String positionName);
+
+    List<Position> findByNameIn(Collection<String> names);
 }
@@ -0,0 +1,16 @@
+package ru.skypro.lessons.springboot.weblibrary.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.skypro.lessons.springboot.weblibrary.model.ReportContent;
+
+import java.util.Collection;
+
+public interface ReportContentRepository extends JpaRepository<ReportContent, Long> {
+
+    @Modifying
+    @Query("DELETE FROM ReportContent c WHERE c.reportId IN :reportIds")
+    int deleteByReportIds(@Param("reportIds") Collection<Long> reportIds);
+}
@@ -1,7 +1,36 @@
 package ru.skypro.lessons.springboot.weblibrary.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportInfoDTO;
 import ru.skypro.lessons.springboot.weblibrary.model.Report;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 public interface ReportRepository extends JpaRepository<Report, Long> {
+
+    @Query(value = "SELECT new ru.skypro.lessons.springboot.weblibrary.dto.ReportInfoDTO(" +
+            "r.id, r.fileName, r.createdAt, r.sizeBytes, r.checksum) FROM Report r",
+            countQuery = "SELECT COUNT(r) FROM Report r")
+    Page<ReportInfoDTO> findReportInfos(Pageable pageable);
+
+    @Query("SELECT r.id, r.fileName FROM Report r WHERE r.createdAt < :createdBefore ORDER BY r.id")
+    List<Object[]> findIdsAndFileNamesCreatedBefore(@Param("createdBefore") LocalDateTime createdBefore,
+                                                    Pageable pageable);
+
+    Optional<Report> findTopByOrderByIdDesc();
+
+    @Query("SELECT r.id FROM Report r WHERE r.dataVersion = :dataVersion ORDER BY r.id DESC")
+    List<Long> findIdsByDataVersion(@Param("dataVersion") Long dataVersion, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Report r WHERE r.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
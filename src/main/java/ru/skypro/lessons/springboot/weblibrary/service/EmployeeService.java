@@ -1,13 +1,20 @@
 package ru.skypro.lessons.springboot.weblibrary.service;
 
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeBulkPatchDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeBulkPatchResultDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeCursorPageDTO;
 import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportInfoDTO;
 import ru.skypro.lessons.springboot.weblibrary.model.Report;
+import ru.skypro.lessons.springboot.weblibrary.report.ReportWriter;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +23,8 @@ public interface EmployeeService {
 
         List<EmployeeDTO> getAllEmployees();
 
+        void writeAllEmployees(OutputStream outputStream) throws IOException;
+
         List<EmployeeDTO> getEmployeesByPosition(String position);
 
         EmployeeDTO getEmployeeById(Long id);
@@ -28,6 +37,12 @@ public interface EmployeeService {
 
         void deleteEmployeeById(Long id);
 
+        int deleteEmployees(List<Long> ids, String departmentName, String positionName);
+
+        EmployeeBulkPatchResultDTO patchEmployees(EmployeeBulkPatchDTO bulkPatch);
+
+        boolean updateSalary(Long id, int salary);
+
         List<EmployeeDTO> getEmployeesWithSalaryHigherThan(int compareSalary);
 
         List<EmployeeDTO> getEmployeesWithHighestSalary();
@@ -35,7 +50,10 @@ public interface EmployeeService {
         EmployeeDTO getEmployeeFullInfo(Long id);
 
         Page<EmployeeDTO> getEmployeesByPage(int page);
-        List<EmployeeDTO> loadEmployeesFromFile(MultipartFile file) throws IOException;
+
+        EmployeeCursorPageDTO getEmployeesAfterCursor(String cursor, int size);
+
+        int importEmployeesFromFile(MultipartFile file) throws IOException;
 
         Long getReportByDepartment() throws IOException, RuntimeException;
 
@@ -43,7 +61,13 @@ public interface EmployeeService {
 
         Optional<Report> getReportById(Long id);
 
-        ResponseEntity<ByteArrayResource> getReportResponseById(Long id);
+        Page<ReportInfoDTO> getReports(int page, int size);
+
+        ResponseEntity<Resource> getReportResponseById(Long id, boolean acceptsGzip) throws IOException;
+
+        ResponseEntity<Resource> getLatestReportResponse(boolean acceptsGzip) throws IOException;
+
+        ResponseEntity<StreamingResponseBody> exportReportById(Long id, ReportWriter writer) throws IOException;
 
     }
 
@@ -1,254 +1,830 @@
 package ru.skypro.lessons.springboot.weblibrary.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.skypro.lessons.springboot.weblibrary.cache.DepartmentStatsStore;
+import ru.skypro.lessons.springboot.weblibrary.cache.DictionaryCache;
+import ru.skypro.lessons.springboot.weblibrary.cache.EmployeeCache;
+import ru.skypro.lessons.springboot.weblibrary.cache.EmployeeDataVersion;
+import ru.skypro.lessons.springboot.weblibrary.cache.SalaryIndex;
+import ru.skypro.lessons.springboot.weblibrary.cache.SalaryWriteBehindBuffer;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeBulkPatchDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeBulkPatchResultDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeCursorPageDTO;
 import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeePatchDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeePatchResultDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeePatchStatus;
 import ru.skypro.lessons.springboot.weblibrary.dto.ReportDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportInfoDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.SalaryRaiseDTO;
 import ru.skypro.lessons.springboot.weblibrary.model.Department;
 import ru.skypro.lessons.springboot.weblibrary.model.Employee;
 import ru.skypro.lessons.springboot.weblibrary.model.Position;
 import ru.skypro.lessons.springboot.weblibrary.model.Report;
-import ru.skypro.lessons.springboot.weblibrary.repository.DepartmentRepository;
+import ru.skypro.lessons.springboot.weblibrary.model.ReportContent;
+import ru.skypro.lessons.springboot.weblibrary.repository.EmployeeBatchRepository;
 import ru.skypro.lessons.springboot.weblibrary.repository.EmployeeRepository;
-import ru.skypro.lessons.springboot.weblibrary.repository.PositionRepository;
+import ru.skypro.lessons.springboot.weblibrary.repository.ReportContentRepository;
+import ru.skypro.lessons.springboot.weblibrary.report.DepartmentSalaryAggregate;
+import ru.skypro.lessons.springboot.weblibrary.report.JsonReportWriter;
+import ru.skypro.lessons.springboot.weblibrary.report.PartitionedReportEngine;
+import ru.skypro.lessons.springboot.weblibrary.report.ReportWriter;
 import ru.skypro.lessons.springboot.weblibrary.repository.ReportRepository;
+import ru.skypro.lessons.springboot.weblibrary.storage.GzipFileResource;
+import ru.skypro.lessons.springboot.weblibrary.storage.ReportStorage;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.stream.Stream;
 
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_REPORT_PAGE_SIZE = 100;
+    private static final String REPORT_REQUESTS_METRIC = "report.requests";
+    private static final String CURSOR_PREFIX = "id:";
+    private static final int ID_CHUNK_SIZE = 1000;
+    private static final DateTimeFormatter REPORT_DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("ddMMyyyy_HHmmss");
+
     private final EmployeeRepository employeeRepository;
-    private final PositionRepository positionRepository;
+    private final ReportRepository reportRepository;
 
-    private final DepartmentRepository departmentRepository;
+    private final ReportContentRepository reportContentRepository;
 
-    private final ReportRepository reportRepository;
+    private final ReportStorage reportStorage;
 
     private final ObjectMapper objectMapper;
+
+    private final DictionaryCache dictionaryCache;
+
+    private final EmployeeCache employeeCache;
+
+    private final SalaryIndex salaryIndex;
+
+    private final DepartmentStatsStore departmentStatsStore;
+
+    private final EmployeeDataVersion employeeDataVersion;
+    private final SalaryWriteBehindBuffer salaryWriteBehindBuffer;
+
+    private final PartitionedReportEngine partitionedReportEngine;
+
+    private final JsonReportWriter jsonReportWriter;
+
+    private final Counter reportsGeneratedCounter;
+
+    private final Counter reportsReusedCounter;
+
+    private final int importChunkSize;
     private static final Logger logger = LoggerFactory.getLogger(EmployeeService.class);
 
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository, PositionRepository positionRepository,
-                               DepartmentRepository departmentRepository, ReportRepository reportRepository,
-                               ObjectMapper objectMapper) {
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository, ReportRepository reportRepository,
+                               ReportContentRepository reportContentRepository, ReportStorage reportStorage,
+                               ObjectMapper objectMapper, DictionaryCache dictionaryCache,
+                               EmployeeCache employeeCache, SalaryIndex salaryIndex,
+                               DepartmentStatsStore departmentStatsStore, EmployeeDataVersion employeeDataVersion,
+                               SalaryWriteBehindBuffer salaryWriteBehindBuffer,
+                               PartitionedReportEngine partitionedReportEngine, MeterRegistry meterRegistry,
+                               @Value("${app.import.chunk-size:1000}") int importChunkSize) {
         this.employeeRepository = employeeRepository;
-        this.positionRepository = positionRepository;
-        this.departmentRepository = departmentRepository;
         this.reportRepository = reportRepository;
+        this.reportContentRepository = reportContentRepository;
+        this.reportStorage = reportStorage;
         this.objectMapper = objectMapper;
+        this.jsonReportWriter = new JsonReportWriter(objectMapper);
+        this.dictionaryCache = dictionaryCache;
+        this.employeeCache = employeeCache;
+        this.salaryIndex = salaryIndex;
+        this.departmentStatsStore = departmentStatsStore;
+        this.employeeDataVersion = employeeDataVersion;
+        this.salaryWriteBehindBuffer = salaryWriteBehindBuffer;
+        this.partitionedReportEngine = partitionedReportEngine;
+        this.importChunkSize = importChunkSize;
+        this.reportsGeneratedCounter = meterRegistry.counter(REPORT_REQUESTS_METRIC, "result", "generated");
+        this.reportsReusedCounter = meterRegistry.counter(REPORT_REQUESTS_METRIC, "result", "reused");
+        Gauge.builder("report.reuse.ratio", this, service -> service.getReportReuseRatio())
+                .register(meterRegistry);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<EmployeeDTO> getAllEmployees() {
         logger.info("Вызван метод getAllEmployees");
-        Iterable<Employee> employees = employeeRepository.findAll();
-        logger.debug("Обращение к Employee выполнено: " + employees);
-        return StreamSupport.stream(employees.spliterator(), false)
-                .map(this::convertToDto)
-                .toList();
+        List<EmployeeDTO> employees = employeeRepository.findAllEmployeeDTOs();
+        logger.debug("Обращение к Employee выполнено: " + employees.size());
+        return employees;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeAllEmployees(OutputStream outputStream) throws IOException {
+        logger.info("Вызван метод writeAllEmployees");
+        ObjectWriter writer = objectMapper.writerFor(EmployeeDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        int writtenCount = 0;
+        try (Stream<EmployeeDTO> employees = employeeRepository.streamAllEmployeeDTOs();
+             JsonGenerator generator = objectMapper.createGenerator(StreamUtils.nonClosing(outputStream))) {
+            generator.setRootValueSeparator(null);
+            Iterator<EmployeeDTO> iterator = employees.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                writtenCount++;
+            }
+        }
+        logger.debug("Выгрузка Employee выполнена: " + writtenCount);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<EmployeeDTO> getEmployeesByPosition(String position) {
         logger.info("Вызван метод getEmployeesByPosition: " + position);
-        List<Employee> employees;
+        List<EmployeeDTO> employees;
         if (position != null) {
-            employees = employeeRepository.findByPositionName(position);
+            employees = employeeRepository.findEmployeeDTOsByPositionName(position);
         } else {
-            employees = employeeRepository.findAll();
+            employees = employeeRepository.findAllEmployeeDTOs();
         }
-        logger.debug("Обращение к Employee выполнено: " + employees);
-        return employees.stream()
-                .map(this::convertToDto)
-                .toList();
+        logger.debug("Обращение к Employee выполнено: " + employees.size());
+        return employees;
     }
 
     @Override
     public EmployeeDTO getEmployeeById(Long id) {
         logger.info("Вызван метод getEmployeeById: " + id);
-        Employee employee = employeeRepository.findById(id).orElseThrow();
-        logger.debug("Обращение к Employee выполнено: " + employee);
-        return convertToDto(employee);
+        return employeeCache.get(id, this::loadEmployee);
     }
 
     @Override
     public void addEmployee(List<EmployeeDTO> employeeDTO) {
         logger.info("Вызван метод addEmployee: " + employeeDTO);
+        employeeDTO.forEach(dto -> checkSalary(dto.getSalary()));
+        Map<String, Position> positions = dictionaryCache.resolvePositions(employeeDTO.stream()
+                .map(EmployeeDTO::getPositionName)
+                .collect(Collectors.toSet()));
+        Map<String, Department> departments = dictionaryCache.resolveDepartments(employeeDTO.stream()
+                .map(EmployeeDTO::getDepartmentName)
+                .collect(Collectors.toSet()));
         List<Employee> employees = employeeDTO.stream()
-                .map(this::convertToEntity)
+                .map(dto -> convertToEntity(dto, positions, departments))
                 .toList();
         employeeRepository.saveAll(employees);
         logger.debug("Обращение к Employee выполнено: " + employees);
+        employeeDataVersion.increment();
+        List<Long> ids = new ArrayList<>(employees.size());
+        int[] salaries = new int[employees.size()];
+        long[] versions = new long[employees.size()];
+        String[] departmentNames = new String[employees.size()];
+        for (int i = 0; i < employees.size(); i++) {
+            Employee employee = employees.get(i);
+            ids.add(employee.getId());
+            salaries[i] = employee.getSalary();
+            versions[i] = employee.getVersion();
+            departmentNames[i] = getDepartmentName(employee);
+        }
+        afterCommit(() -> {
+            employeeCache.invalidateAll(ids);
+            for (int i = 0; i < ids.size(); i++) {
+                salaryIndex.put(ids.get(i), salaries[i], versions[i]);
+                departmentStatsStore.put(ids.get(i), departmentNames[i], salaries[i]);
+            }
+        });
     }
 
     @Override
     public EmployeeDTO getEmployeeFullInfo(Long id) {
         logger.info("Вызван метод getEmployeeFullInfo: " + id);
-        Optional<Employee> employeeOptional = employeeRepository.findEmployeeWithPosition(id);
-        logger.debug("Обращение к Employee выполнено: " + employeeOptional);
-        Employee employee = employeeOptional.orElseThrow();
-        return convertToDto(employee);
+        return employeeCache.get(id, this::loadEmployee);
     }
 
-
     @Override
+    @Transactional
     public EmployeeDTO editEmployee(Long id, EmployeeDTO employeeDTO) {
         logger.info("Вызван метод editEmployee:" + id + employeeDTO);
-        Employee existingEmployee = employeeRepository.findById(id).orElseThrow();
-        existingEmployee.setName(employeeDTO.getName());
-        existingEmployee.setSalary(employeeDTO.getSalary());
-        if (employeeDTO.getPositionName() != null) {
-            Position position = positionRepository.findByName(employeeDTO.getPositionName()).orElseThrow();
-            logger.debug("Обращение к Position выполнено: " + position);
-            existingEmployee.setPosition(position);
-        }
-        if (employeeDTO.getDepartmentName() != null) {
-            Department department = departmentRepository.findByName(employeeDTO.getDepartmentName()).orElseThrow();
-            logger.debug("Обращение к Department выполнено: " + department);
-            existingEmployee.setDepartment(department);
-        }
-        Employee updatedEmployee = employeeRepository.save(existingEmployee);
+        checkSalary(employeeDTO.getSalary());
+        salaryWriteBehindBuffer.flush(List.of(id));
+        Position position = employeeDTO.getPositionName() == null
+                ? null : dictionaryCache.getPosition(employeeDTO.getPositionName());
+        Department department = employeeDTO.getDepartmentName() == null
+                ? null : dictionaryCache.getDepartment(employeeDTO.getDepartmentName());
+        int updatedCount = employeeRepository.updateEmployee(id, employeeDTO.getName(), employeeDTO.getSalary(),
+                position == null ? null : position.getId(), department == null ? null : department.getId(),
+                employeeDTO.getVersion());
+        if (updatedCount == 0) {
+            if (employeeDTO.getVersion() != null && employeeRepository.existsById(id)) {
+                throw new OptimisticLockingFailureException(
+                        "Сотрудник " + id + " уже изменён, ожидаемая версия: " + employeeDTO.getVersion());
+            }
+            throw new NoSuchElementException("Сотрудник не найден: " + id);
+        }
+        EmployeeDTO updatedEmployee;
+        if (position != null && department != null && employeeDTO.getVersion() != null) {
+            updatedEmployee = new EmployeeDTO(employeeDTO.getName(), employeeDTO.getSalary(),
+                    position.getName(), department.getName(), employeeDTO.getVersion() + 1);
+        } else {
+            updatedEmployee = employeeRepository.findEmployeeDTOById(id).orElseThrow();
+        }
         logger.debug("Обращение к Employee выполнено: " + updatedEmployee);
-        return convertToDto(updatedEmployee);
+        employeeDataVersion.increment();
+        afterCommit(() -> {
+            employeeCache.invalidate(id);
+            salaryIndex.put(id, updatedEmployee.getSalary(), updatedEmployee.getVersion());
+            departmentStatsStore.put(id, updatedEmployee.getDepartmentName(), updatedEmployee.getSalary());
+        });
+        return updatedEmployee;
+    }
+
+    /**
+     * В режиме отложенной записи только ставит зарплату в буфер и возвращает {@code false}, не
+     * открывая транзакцию и не занимая соединение; иначе сразу пишет её в БД в транзакции
+     * {@link EmployeeRepository#updateSalary}.
+     */
+    @Override
+    public boolean updateSalary(Long id, int salary) {
+        logger.info("Вызван метод updateSalary: " + id + ", " + salary);
+        checkSalary(salary);
+        if (salaryWriteBehindBuffer.isEnabled()) {
+            salaryWriteBehindBuffer.offer(id, salary);
+            return false;
+        }
+        int updatedCount = employeeRepository.updateSalary(id, salary);
+        logger.debug("Изменение зарплаты выполнено: " + updatedCount);
+        if (updatedCount == 0) {
+            throw new NoSuchElementException("Сотрудник не найден: " + id);
+        }
+        // Зарплата и версия перечитываются парой: параллельное изменение могло успеть после UPDATE.
+        EmployeeDTO updatedEmployee = salaryIndex.isReady() || departmentStatsStore.isReady()
+                ? employeeRepository.findEmployeeDTOById(id).orElseThrow() : null;
+        employeeDataVersion.increment();
+        afterCommit(() -> {
+            employeeCache.invalidate(id);
+            if (updatedEmployee != null) {
+                salaryIndex.put(id, updatedEmployee.getSalary(), updatedEmployee.getVersion());
+                departmentStatsStore.put(id, updatedEmployee.getDepartmentName(), updatedEmployee.getSalary());
+            }
+        });
+        return true;
+    }
 
+    /**
+     * Применяет частичные изменения JDBC batch'ем и/или процентное изменение зарплат одним
+     * UPDATE в одной транзакции. Ненайденные сотрудники и конфликты версий не откатывают
+     * остальные изменения, а попадают в результат по каждому элементу. Весь запрос проверяется
+     * до первой записи, кэш и индексы обновляются только после фиксации.
+     */
+    @Override
+    @Transactional
+    public EmployeeBulkPatchResultDTO patchEmployees(EmployeeBulkPatchDTO bulkPatch) {
+        List<EmployeePatchDTO> patches = bulkPatch.getPatches() == null ? List.of() : bulkPatch.getPatches();
+        SalaryRaiseDTO salaryRaise = bulkPatch.getSalaryRaise();
+        logger.info("Вызван метод patchEmployees: " + patches.size() + ", " + salaryRaise);
+        if (patches.isEmpty() && salaryRaise == null) {
+            throw new IllegalArgumentException("Нет изменений");
+        }
+        if (patches.stream().anyMatch(patch -> patch.getId() == null)) {
+            throw new IllegalArgumentException("У каждого изменения должен быть id");
+        }
+        patches.forEach(patch -> checkSalary(patch.getSalary()));
+        BigDecimal factor = salaryRaise == null ? null : toSalaryFactor(salaryRaise);
+        Map<String, Position> positions = dictionaryCache.resolvePositions(patches.stream()
+                .map(EmployeePatchDTO::getPositionName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+        Map<String, Department> departments = dictionaryCache.resolveDepartments(patches.stream()
+                .map(EmployeePatchDTO::getDepartmentName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        if (factor != null) {
+            salaryWriteBehindBuffer.flush();
+        } else {
+            salaryWriteBehindBuffer.flush(patches.stream()
+                    .filter(patch -> patch.getSalary() != null)
+                    .map(EmployeePatchDTO::getId)
+                    .toList());
+        }
+
+        List<Long> patchedIds = new ArrayList<>(patches.size());
+        List<EmployeePatchResultDTO> results = patchEmployees(patches, positions, departments, patchedIds);
+        int raisedCount = 0;
+        if (factor != null) {
+            raisedCount = employeeRepository.multiplySalaries(factor,
+                    salaryRaise.getDepartmentName(), salaryRaise.getPositionName());
+            logger.debug("Изменение зарплат выполнено: " + raisedCount);
+        }
+        int updatedCount = patchedIds.size() + raisedCount;
+        if (updatedCount == 0) {
+            return new EmployeeBulkPatchResultDTO(0, results);
+        }
+        employeeDataVersion.increment();
+        if (raisedCount > 0) {
+            // Новые зарплаты после UPDATE по фильтру неизвестны без перечитывания, поэтому
+            // индекс и статистика перестраиваются из БД.
+            boolean rebuildIndex = salaryIndex.isReady();
+            boolean rebuildStats = departmentStatsStore.isReady();
+            afterCommit(() -> {
+                employeeCache.invalidateAll();
+                if (rebuildIndex) {
+                    salaryIndex.rebuild();
+                }
+                if (rebuildStats) {
+                    departmentStatsStore.rebuild();
+                }
+            });
+        } else {
+            List<Object[]> rows = salaryIndex.isReady() || departmentStatsStore.isReady()
+                    ? loadEmployeeRows(patchedIds) : List.of();
+            afterCommit(() -> {
+                employeeCache.invalidateAll(patchedIds);
+                for (Object[] row : rows) {
+                    salaryIndex.put((Long) row[0], (Integer) row[2], (Long) row[5]);
+                    departmentStatsStore.put((Long) row[0], (String) row[4], (Integer) row[2]);
+                }
+            });
+        }
+        return new EmployeeBulkPatchResultDTO(updatedCount, results);
+    }
+
+    private List<EmployeePatchResultDTO> patchEmployees(List<EmployeePatchDTO> patches, Map<String, Position> positions,
+                                                        Map<String, Department> departments, List<Long> patchedIds) {
+        List<EmployeePatchResultDTO> results = new ArrayList<>(patches.size());
+        for (int from = 0; from < patches.size(); from += ID_CHUNK_SIZE) {
+            List<EmployeePatchDTO> chunk = patches.subList(from, Math.min(from + ID_CHUNK_SIZE, patches.size()));
+            int[] updatedCounts = employeeRepository.batchUpdateEmployees(chunk.stream()
+                    .map(patch -> new EmployeeBatchRepository.EmployeeUpdate(patch.getId(), patch.getName(),
+                            patch.getSalary(),
+                            patch.getPositionName() == null ? null : positions.get(patch.getPositionName()).getId(),
+                            patch.getDepartmentName() == null ? null : departments.get(patch.getDepartmentName()).getId(),
+                            patch.getVersion()))
+                    .toList());
+            List<Long> missedIds = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                if (updatedCounts[i] == 0) {
+                    missedIds.add(chunk.get(i).getId());
+                }
+            }
+            Set<Long> existingIds = missedIds.isEmpty()
+                    ? Set.of() : Set.copyOf(employeeRepository.findExistingIds(missedIds));
+            for (int i = 0; i < chunk.size(); i++) {
+                Long id = chunk.get(i).getId();
+                EmployeePatchStatus status;
+                if (updatedCounts[i] != 0) {
+                    status = EmployeePatchStatus.UPDATED;
+                    patchedIds.add(id);
+                } else if (existingIds.contains(id)) {
+                    status = EmployeePatchStatus.CONFLICT;
+                } else {
+                    status = EmployeePatchStatus.NOT_FOUND;
+                }
+                results.add(new EmployeePatchResultDTO(id, status));
+            }
+        }
+        logger.debug("Изменение Employee выполнено: " + results.size());
+        return results;
+    }
+
+    // Зарплаты в БД неотрицательны: на этом держатся гистограмма отчёта и индексы, а повышение
+    // на процент больше -100 знак зарплаты не меняет.
+    private static void checkSalary(Integer salary) {
+        if (salary != null && salary < 0) {
+            throw new IllegalArgumentException("Зарплата не может быть отрицательной: " + salary);
+        }
+    }
+
+    private static BigDecimal toSalaryFactor(SalaryRaiseDTO salaryRaise) {
+        if (salaryRaise.getPercent() == null || salaryRaise.getPercent().compareTo(BigDecimal.valueOf(-100)) <= 0) {
+            throw new IllegalArgumentException("Некорректный процент изменения зарплаты: " + salaryRaise.getPercent());
+        }
+        return BigDecimal.ONE.add(salaryRaise.getPercent().movePointLeft(2));
     }
 
+    private List<Object[]> loadEmployeeRows(List<Long> ids) {
+        List<Object[]> rows = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            rows.addAll(employeeRepository.findEmployeeRowsByIds(
+                    ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()))));
+        }
+        return rows;
+    }
+
+    // Кэш и индексы меняются только после фиксации: загрузка, начатая до коммита, иначе вернула
+    // бы в кэш старую строку до истечения TTL. Вне транзакции изменения применяются сразу.
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 
     @Override
     public void deleteEmployeeById(Long id) {
         logger.info("Вызван метод deleteEmployeeById: " + id);
-        Employee employee = employeeRepository.findById(id).orElseThrow();
-        logger.debug("Обращение к Employee выполнено: " + employee);
-        employeeRepository.delete(employee);
+        int deletedCount = employeeRepository.deleteEmployeeById(id);
+        logger.debug("Удаление Employee выполнено: " + deletedCount);
+        if (deletedCount == 0) {
+            throw new NoSuchElementException("Сотрудник не найден: " + id);
+        }
+        afterEmployeesDeleted(List.of(id));
     }
 
+    /**
+     * Удаляет сотрудников по списку id или по отделу и/или должности порциями по
+     * {@code ID_CHUNK_SIZE}. Каждая порция удаляется отдельной транзакцией, поэтому при ошибке
+     * уже удалённые порции не возвращаются; повторный вызов дочищает остаток.
+     */
     @Override
+    public int deleteEmployees(List<Long> ids, String departmentName, String positionName) {
+        logger.info("Вызван метод deleteEmployees: " + (ids == null ? null : ids.size())
+                + ", " + departmentName + ", " + positionName);
+        boolean byIds = ids != null && !ids.isEmpty();
+        boolean byFilter = departmentName != null || positionName != null;
+        if (byIds == byFilter) {
+            throw new IllegalArgumentException("Нужно указать либо список id, либо отдел и/или должность");
+        }
+        int deletedCount = 0;
+        if (byIds) {
+            List<Long> distinctIds = ids.stream().distinct().toList();
+            for (int from = 0; from < distinctIds.size(); from += ID_CHUNK_SIZE) {
+                deletedCount += deleteChunk(distinctIds.subList(from, Math.min(from + ID_CHUNK_SIZE, distinctIds.size())));
+            }
+        } else {
+            List<Long> chunk;
+            do {
+                chunk = employeeRepository.findIdsByDepartmentAndPosition(
+                        departmentName, positionName, PageRequest.of(0, ID_CHUNK_SIZE));
+                if (!chunk.isEmpty()) {
+                    deletedCount += deleteChunk(chunk);
+                }
+            } while (chunk.size() == ID_CHUNK_SIZE);
+        }
+        logger.debug("Удаление Employee выполнено: " + deletedCount);
+        return deletedCount;
+    }
+
+    private int deleteChunk(List<Long> ids) {
+        int deletedCount = employeeRepository.deleteEmployeesByIds(ids);
+        afterEmployeesDeleted(ids);
+        return deletedCount;
+    }
+
+    private void afterEmployeesDeleted(List<Long> ids) {
+        employeeDataVersion.increment();
+        employeeCache.invalidateAll(ids);
+        for (Long id : ids) {
+            salaryIndex.remove(id);
+            departmentStatsStore.remove(id);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<EmployeeDTO> getEmployeesWithSalaryHigherThan(int compareSalary) {
         logger.info("Вызван метод getEmployeesWithSalaryHigherThan: " + compareSalary);
-        List<Employee> employees = employeeRepository.findBySalaryGreaterThan(compareSalary);
-        logger.debug("Обращение к Employee выполнено: " + employees);
-        return employees.stream()
-                .map(this::convertToDto)
-                .toList();
+        if (salaryIndex.isReady()) {
+            return getEmployeesByIds(salaryIndex.findIdsWithSalaryGreaterThan(compareSalary));
+        }
+        List<EmployeeDTO> employees = employeeRepository.findEmployeeDTOsBySalaryGreaterThan(compareSalary);
+        logger.debug("Обращение к Employee выполнено: " + employees.size());
+        return employees;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<EmployeeDTO> getEmployeesWithHighestSalary() {
         logger.info("Вызван метод getEmployeesWithHighestSalary");
-        List<Employee> employees = employeeRepository.getEmployeesWithHighestSalary();
-        logger.debug("Обращение к Employee выполнено: " + employees);
-        return employees.stream()
-                .map(this::convertToDto)
-                .toList();
+        if (salaryIndex.isReady()) {
+            return getEmployeesByIds(salaryIndex.findIdsWithHighestSalary());
+        }
+        List<EmployeeDTO> employees = employeeRepository.findEmployeeDTOsWithHighestSalary();
+        logger.debug("Обращение к Employee выполнено: " + employees.size());
+        return employees;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<EmployeeDTO> getEmployeesByPage(int page) {
         logger.info("Вызван метод getEmployeesByPage: " + page);
         Pageable pageable = PageRequest.of(page, 5);
-        Page<Employee> employeePage = employeeRepository.findAll(pageable);
+        Page<EmployeeDTO> employeePage = employeeRepository.findEmployeeDTOs(pageable);
         logger.debug("Обращение к Employee выполнено: " + employeePage);
-        return employeePage.map(this::convertToDto);
+        return employeePage;
     }
 
     @Override
-    public List<EmployeeDTO> loadEmployeesFromFile(MultipartFile file) throws IOException {
-        logger.info("Вызван метод loadEmployeesFromFile: " + file);
-        String jsonContent = new String(file.getBytes(), StandardCharsets.UTF_8);
-        return objectMapper.readValue(jsonContent, new TypeReference<>() {
-        });
+    @Transactional(readOnly = true)
+    public EmployeeCursorPageDTO getEmployeesAfterCursor(String cursor, int size) {
+        logger.info("Вызван метод getEmployeesAfterCursor: " + cursor + ", " + size);
+        if (size < 1) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным: " + size);
+        }
+        int pageSize = Math.min(size, MAX_CURSOR_PAGE_SIZE);
+        Long lastId = cursor == null ? 0L : decodeCursor(cursor);
+        List<Object[]> rows = employeeRepository.findEmployeeRowsAfter(lastId, PageRequest.of(0, pageSize + 1));
+        logger.debug("Обращение к Employee выполнено: " + rows.size());
+        boolean hasNext = rows.size() > pageSize;
+        List<Object[]> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+        List<EmployeeDTO> content = pageRows.stream()
+                .map(this::toEmployeeDTO)
+                .toList();
+        String nextCursor = hasNext ? encodeCursor((Long) pageRows.get(pageRows.size() - 1)[0]) : null;
+        return new EmployeeCursorPageDTO(content, nextCursor, hasNext);
     }
 
+    /**
+     * Импортирует файл целиком в одной транзакции: ошибка в любой строке откатывает весь импорт,
+     * поэтому повтор запроса не создаёт дубликатов. Порции по {@code importChunkSize} сбрасываются
+     * в БД и вытесняются из контекста персистентности, чтобы память не росла с размером файла.
+     */
     @Override
+    @Transactional(rollbackFor = IOException.class)
+    public int importEmployeesFromFile(MultipartFile file) throws IOException {
+        logger.info("Вызван метод importEmployeesFromFile: " + file.getOriginalFilename());
+        int importedCount = 0;
+        List<EmployeeDTO> chunk = new ArrayList<>(importChunkSize);
+        try (InputStream inputStream = file.getInputStream();
+             JsonParser parser = objectMapper.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Ожидался JSON-массив сотрудников");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                chunk.add(parser.readValueAs(EmployeeDTO.class));
+                if (chunk.size() == importChunkSize) {
+                    addEmployee(chunk);
+                    employeeRepository.flushAndClear();
+                    importedCount += chunk.size();
+                    chunk.clear();
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new JsonParseException(parser, "Ожидался объект сотрудника");
+            }
+        }
+        if (!chunk.isEmpty()) {
+            addEmployee(chunk);
+            importedCount += chunk.size();
+        }
+        logger.debug("Импорт сотрудников из файла выполнен: " + importedCount);
+        return importedCount;
+    }
+
+    @Override
+    @Transactional
     public Long getReportByDepartment() throws IOException {
         logger.info("Вызван метод getReportByDepartment");
-        List<Object[]> results = employeeRepository.getReportByDepartment();
-        logger.debug("Обращение к Employee выполнено: " + results);
-        List<ReportDTO> reportDTOs = results.stream()
-                .map(row -> {
-                    ReportDTO reportDTO = new ReportDTO();
-                    reportDTO.setDepartmentName((String) row[0]);
-                    reportDTO.setEmployeeCount((Long) row[1]);
-                    reportDTO.setMaxSalary((Integer) row[2]);
-                    reportDTO.setMinSalary((Integer) row[3]);
-                    reportDTO.setAverageSalary((BigDecimal) row[4]);
-                    return reportDTO;
-                })
+        long dataVersion = employeeDataVersion.current();
+        List<Long> existingReportIds = reportRepository.findIdsByDataVersion(dataVersion, PageRequest.of(0, 1));
+        if (!existingReportIds.isEmpty()) {
+            reportsReusedCounter.increment();
+            logger.debug("Отчёт для версии данных " + dataVersion + " уже построен: " + existingReportIds.get(0));
+            return existingReportIds.get(0);
+        }
+        reportsGeneratedCounter.increment();
+        if (departmentStatsStore.isReady()) {
+            return saveReportDTOsToJsonAndInTable(departmentStatsStore.getReport(), dataVersion);
+        }
+        if (partitionedReportEngine.isEnabled()) {
+            return saveReportDTOsToJsonAndInTable(partitionedReportEngine.computeReport(), dataVersion);
+        }
+        Map<String, DepartmentSalaryAggregate> aggregates = new TreeMap<>();
+        try (Stream<Object[]> rows = employeeRepository.streamIdsSalariesAndDepartments()) {
+            rows.forEach(row -> aggregates
+                    .computeIfAbsent((String) row[2], name -> new DepartmentSalaryAggregate())
+                    .add((Integer) row[1]));
+        }
+        logger.debug("Обращение к Employee выполнено, отделов: " + aggregates.size());
+        List<ReportDTO> reportDTOs = aggregates.entrySet().stream()
+                .map(entry -> entry.getValue().toReportDTO(entry.getKey()))
                 .toList();
-        return saveReportDTOsToJsonAndInTable(reportDTOs);
+        return saveReportDTOsToJsonAndInTable(reportDTOs, dataVersion);
     }
 
     @Override
-    public void generateJsonFileFromReport(Long id) {
+    public void generateJsonFileFromReport(Long id) throws IOException {
         logger.info("Вызван метод generateJsonFileFromReport: " + id);
         Report report = reportRepository.findById(id).orElseThrow();
         logger.debug("Обращение к Report выполнено: " + report);
-        String content = report.getContent();
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(report.getFileName()))) {
-            writer.write(content);
-        } catch (Exception e) {
-            logger.error("Ошибка создания Json файла", e);
+        generateJsonFileFromReport(report);
+    }
+
+    /**
+     * Возвращает имя файла отчёта в хранилище. Содержимое старых отчётов из report_content
+     * выгружается в файл {@link ReportStorage#legacyFileName(long)} при первом обращении.
+     */
+    private String generateJsonFileFromReport(Report report) throws IOException {
+        String legacyFileName = ReportStorage.legacyFileName(report.getId());
+        if (Files.exists(reportStorage.resolveCompressed(legacyFileName))) {
+            return legacyFileName;
+        }
+        Optional<ReportContent> content = reportContentRepository.findById(report.getId());
+        if (content.isEmpty()) {
+            return report.getFileName();
+        }
+        byte[] compressedContent = content.get().getCompressedContent();
+        reportStorage.writeCompressed(legacyFileName, outputStream -> outputStream.write(compressedContent));
+        return legacyFileName;
+    }
+
+    @Override
+    public ResponseEntity<Resource> getReportResponseById(Long id, boolean acceptsGzip) throws IOException {
+        logger.info("Вызван метод getReportResponseById: " + id + ", gzip: " + acceptsGzip);
+        Optional<Report> reportOptional = getReportById(id);
+        if (reportOptional.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return toReportResponse(reportOptional.get(), acceptsGzip);
+    }
+
+    @Override
+    public ResponseEntity<Resource> getLatestReportResponse(boolean acceptsGzip) throws IOException {
+        logger.info("Вызван метод getLatestReportResponse, gzip: " + acceptsGzip);
+        Optional<Report> reportOptional = reportRepository.findTopByOrderByIdDesc();
+        if (reportOptional.isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
+        return toReportResponse(reportOptional.get(), acceptsGzip);
     }
 
     @Override
-    public ResponseEntity<ByteArrayResource> getReportResponseById(Long id) {
-        logger.info("Вызван метод getReportResponseById: " + id);
+    public ResponseEntity<StreamingResponseBody> exportReportById(Long id, ReportWriter writer) throws IOException {
+        logger.info("Вызван метод exportReportById: " + id + ", формат: " + writer.getFormat());
         Optional<Report> reportOptional = getReportById(id);
         if (reportOptional.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         Report report = reportOptional.get();
-        ByteArrayResource resource = new ByteArrayResource(report.getContent().getBytes());
+        Resource resource = Objects.requireNonNull(toReportResponse(report, false).getBody());
+        String baseName = report.getFileName().endsWith(".json")
+                ? report.getFileName().substring(0, report.getFileName().length() - ".json".length())
+                : report.getFileName();
+        StreamingResponseBody body;
+        if (JsonReportWriter.FORMAT.equals(writer.getFormat())) {
+            // Отчёт хранится в JSON, поэтому он отдаётся как есть, без разбора.
+            body = outputStream -> {
+                try (InputStream inputStream = resource.getInputStream()) {
+                    StreamUtils.copy(inputStream, outputStream);
+                }
+            };
+        } else {
+            body = outputStream -> writer.write(consumer -> readReportRows(resource, consumer), outputStream);
+        }
         return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + baseName + writer.getFileExtension())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .contentType(writer.getMediaType())
+                .body(body);
+    }
+
+    private void readReportRows(Resource resource, ReportWriter.RowConsumer consumer) throws IOException {
+        try (InputStream inputStream = resource.getInputStream();
+             JsonParser parser = objectMapper.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Ожидался JSON-массив строк отчёта");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                consumer.accept(parser.readValueAs(ReportDTO.class));
+            }
+        }
+    }
+
+    private ResponseEntity<Resource> toReportResponse(Report report, boolean acceptsGzip) throws IOException {
+        String storedFileName = generateJsonFileFromReport(report);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + report.getFileName())
-                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .contentLength(resource.contentLength())
-                .body(resource);
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        Path compressedPath = reportStorage.resolveCompressed(storedFileName);
+        Path plainPath = reportStorage.resolve(storedFileName);
+        Resource resource;
+        if (Files.isRegularFile(compressedPath) && acceptsGzip) {
+            resource = new FileSystemResource(compressedPath);
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        } else if (Files.isRegularFile(compressedPath)) {
+            resource = new GzipFileResource(compressedPath, report.getFileName());
+        } else if (Files.isRegularFile(plainPath)) {
+            resource = new FileSystemResource(plainPath);
+        } else {
+            throw new NoSuchElementException("Файл отчёта не найден: " + report.getFileName());
+        }
+        return response.lastModified(resource.lastModified()).body(resource);
     }
 
-    private EmployeeDTO convertToDto(Employee employee) {
-        logger.info("Вызван метод convertToDto: " + employee);
-        EmployeeDTO employeeDTO = new EmployeeDTO();
-        employeeDTO.setName(employee.getName());
-        employeeDTO.setSalary(employee.getSalary());
-        employeeDTO.setPositionName(employee.getPosition().getName());
-        employeeDTO.setDepartmentName(employee.getDepartment().getName());
-        return employeeDTO;
+    private EmployeeDTO loadEmployee(Long id) {
+        EmployeeDTO employee = employeeRepository.findEmployeeDTOById(id).orElseThrow();
+        logger.debug("Обращение к Employee выполнено: " + employee);
+        return employee;
+    }
+
+    private List<EmployeeDTO> getEmployeesByIds(long[] ids) {
+        List<Long> idList = Arrays.stream(ids).boxed().toList();
+        Map<Long, EmployeeDTO> employees = employeeCache.getAll(idList, this::loadEmployees);
+        return idList.stream()
+                .map(employees::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
-    private Employee convertToEntity(EmployeeDTO employeeDTO) {
+    private Map<Long, EmployeeDTO> loadEmployees(Set<? extends Long> ids) {
+        List<Long> idList = new ArrayList<>(ids);
+        Map<Long, EmployeeDTO> employees = new HashMap<>();
+        for (int from = 0; from < idList.size(); from += ID_CHUNK_SIZE) {
+            List<Object[]> rows = employeeRepository.findEmployeeRowsByIds(
+                    idList.subList(from, Math.min(from + ID_CHUNK_SIZE, idList.size())));
+            rows.forEach(row -> employees.put((Long) row[0], toEmployeeDTO(row)));
+        }
+        logger.debug("Обращение к Employee выполнено: " + employees.size());
+        return employees;
+    }
+
+    private double getReportReuseRatio() {
+        double reused = reportsReusedCounter.count();
+        double total = reused + reportsGeneratedCounter.count();
+        return total == 0 ? 0 : reused / total;
+    }
+
+    private String getDepartmentName(Employee employee) {
+        return employee.getDepartment() == null ? null : employee.getDepartment().getName();
+    }
+
+    private EmployeeDTO toEmployeeDTO(Object[] row) {
+        return new EmployeeDTO((String) row[1], (Integer) row[2], (String) row[3], (String) row[4]);
+    }
+
+    private String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Long decodeCursor(String cursor) {
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        if (!decoded.startsWith(CURSOR_PREFIX)) {
+            throw new IllegalArgumentException("Некорректный курсор: " + cursor);
+        }
+        return Long.valueOf(decoded.substring(CURSOR_PREFIX.length()));
+    }
+
+    private Employee convertToEntity(EmployeeDTO employeeDTO, Map<String, Position> positions,
+                                     Map<String, Department> departments) {
         logger.info("Вызван метод convertToEntity: " + employeeDTO);
         Employee employee = new Employee();
-        Position position = positionRepository.findByName(employeeDTO.getPositionName()).orElseThrow();
-        logger.debug("Обращение к Position выполнено: " + position);
-        Department department = departmentRepository.findByName(employeeDTO.getDepartmentName()).orElseThrow();
-        logger.debug("Обращение к Department выполнено: " + department);
+        Position position = positions.get(employeeDTO.getPositionName());
+        Department department = departments.get(employeeDTO.getDepartmentName());
         employee.setDepartment(department);
         employee.setPosition(position);
         employee.setName(employeeDTO.getName());
@@ -257,31 +833,42 @@ public class EmployeeServiceImpl implements EmployeeService {
     }
 
     public Long saveReportDTOsToJsonAndInTable(List<ReportDTO> reportDTOs) throws IOException {
-        logger.info("Вызван метод saveReportDTOsToJsonAndInTable: " + reportDTOs);
-        Report report = null;
-        String fileName = "report";
-        LocalDateTime currentDateTime = LocalDateTime.now();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("ddMMyyyy_HHmm");
-        String formattedDateTime = currentDateTime.format(formatter);
-        String fileNameWithDateTime = fileName + "_" + formattedDateTime;
-        String json = objectMapper.writeValueAsString(reportDTOs);
-        Path filePath = Files.write(Path.of(fileNameWithDateTime), json.getBytes());
-        String fileContent = null;
-        try (BufferedReader reader = Files.newBufferedReader(filePath)) {
-            fileContent = reader.lines()
-                    .collect(Collectors.joining(System.lineSeparator()));
-        } catch (Exception e) {
-            logger.error("Ошибка чтения Json файла: ", e);
-
-        }
-        report = new Report();
-        report.setFileName(fileNameWithDateTime);
-        report.setContent(fileContent);
-        reportRepository.save(report);
+        return saveReportDTOsToJsonAndInTable(reportDTOs, null);
+    }
+
+    private Long saveReportDTOsToJsonAndInTable(List<ReportDTO> reportDTOs, Long dataVersion) throws IOException {
+        logger.info("Вызван метод saveReportDTOsToJsonAndInTable: " + reportDTOs.size());
+        String fileName = "report_" + LocalDateTime.now().format(REPORT_DATE_TIME_FORMAT)
+                + "_" + UUID.randomUUID().toString().substring(0, 8) + ".json";
+        ReportStorage.StoredReportFile storedFile =
+                reportStorage.write(fileName, outputStream -> jsonReportWriter.write(reportDTOs, outputStream));
+        Report report = new Report(fileName);
+        report.setSizeBytes(storedFile.sizeBytes());
+        report.setChecksum(storedFile.checksum());
+        report.setDataVersion(dataVersion);
+        try {
+            reportRepository.save(report);
+        } catch (RuntimeException e) {
+            reportStorage.delete(fileName);
+            throw e;
+        }
         logger.debug("Обращение к Report выполнено: " + report);
         return report.getId();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ReportInfoDTO> getReports(int page, int size) {
+        logger.info("Вызван метод getReports: " + page + ", " + size);
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("Некорректная страница: " + page + ", " + size);
+        }
+        Pageable pageable = PageRequest.of(page, Math.min(size, MAX_REPORT_PAGE_SIZE), Sort.by(Sort.Direction.DESC, "id"));
+        Page<ReportInfoDTO> reports = reportRepository.findReportInfos(pageable);
+        logger.debug("Обращение к Report выполнено: " + reports.getNumberOfElements());
+        return reports;
+    }
+
     public Optional<Report> getReportById(Long id) {
 
         logger.info("Был вызван метод getReportById: " + id);
@@ -0,0 +1,13 @@
+package ru.skypro.lessons.springboot.weblibrary.service;
+
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportJobDTO;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface ReportJobService {
+    ReportJobDTO submitDepartmentReport();
+
+    ReportJobDTO getJob(String jobId);
+
+    CompletableFuture<ReportJobDTO> awaitJob(String jobId);
+}
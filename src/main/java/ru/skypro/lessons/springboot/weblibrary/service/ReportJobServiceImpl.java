@@ -0,0 +1,159 @@
+package ru.skypro.lessons.springboot.weblibrary.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportJobDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportJobStatus;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выполняет генерацию отчётов в ограниченном пуле потоков. Пока задача с тем же ключом стоит
+ * в очереди или выполняется, повторная отправка возвращает её же; при переполнении очереди
+ * задача отклоняется с {@link RejectedExecutionException}.
+ */
+@Service
+public class ReportJobServiceImpl implements ReportJobService {
+
+    static final String DEPARTMENT_REPORT = "department";
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobService.class);
+
+    private final EmployeeService employeeService;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, ReportJob> jobs;
+    private final Map<String, ReportJob> activeJobs = new ConcurrentHashMap<>();
+
+    private final Counter submittedCounter;
+    private final Counter deduplicatedCounter;
+    private final Counter rejectedCounter;
+
+    public ReportJobServiceImpl(EmployeeService employeeService, MeterRegistry meterRegistry,
+                                @Value("${app.report.jobs.threads:2}") int threads,
+                                @Value("${app.report.jobs.queue-capacity:16}") int queueCapacity,
+                                @Value("${app.report.jobs.retention:1h}") Duration retention) {
+        this.employeeService = employeeService;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("report-job-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(retention)
+                .build();
+        this.submittedCounter = meterRegistry.counter("report.jobs.submitted");
+        this.deduplicatedCounter = meterRegistry.counter("report.jobs.deduplicated");
+        this.rejectedCounter = meterRegistry.counter("report.jobs.rejected");
+        Gauge.builder("report.jobs.queue.size", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("report.jobs.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ReportJobDTO submitDepartmentReport() {
+        logger.info("Вызван метод submitDepartmentReport");
+        return submit(DEPARTMENT_REPORT, employeeService::getReportByDepartment);
+    }
+
+    @Override
+    public ReportJobDTO getJob(String jobId) {
+        return findJob(jobId).toDTO();
+    }
+
+    @Override
+    public CompletableFuture<ReportJobDTO> awaitJob(String jobId) {
+        return findJob(jobId).completion;
+    }
+
+    ReportJobDTO submit(String key, Callable<Long> task) {
+        ReportJob job = activeJobs.compute(key, (jobKey, existing) -> {
+            if (existing != null) {
+                deduplicatedCounter.increment();
+                return existing;
+            }
+            ReportJob created = new ReportJob(UUID.randomUUID().toString());
+            try {
+                executor.execute(() -> run(jobKey, created, task));
+            } catch (RejectedExecutionException e) {
+                rejectedCounter.increment();
+                logger.warn("Очередь отчётов переполнена, задача отклонена: " + jobKey);
+                throw e;
+            }
+            submittedCounter.increment();
+            jobs.put(created.id, created);
+            return created;
+        });
+        logger.debug("Задача отчёта: " + job.id);
+        return job.toDTO();
+    }
+
+    private void run(String key, ReportJob job, Callable<Long> task) {
+        job.status = ReportJobStatus.RUNNING;
+        Long reportId = null;
+        String error = null;
+        try {
+            reportId = task.call();
+        } catch (Exception e) {
+            logger.error("Ошибка генерации отчёта: " + job.id, e);
+            error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        } finally {
+            activeJobs.remove(key, job);
+        }
+        job.finish(reportId, error);
+    }
+
+    private ReportJob findJob(String jobId) {
+        ReportJob job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new NoSuchElementException("Задача отчёта не найдена: " + jobId);
+        }
+        return job;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class ReportJob {
+
+        private final String id;
+        private final CompletableFuture<ReportJobDTO> completion = new CompletableFuture<>();
+        private volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+        private volatile Long reportId;
+        private volatile String error;
+
+        private ReportJob(String id) {
+            this.id = id;
+        }
+
+        private void finish(Long reportId, String error) {
+            this.reportId = reportId;
+            this.error = error;
+            this.status = error == null ? ReportJobStatus.DONE : ReportJobStatus.FAILED;
+            completion.complete(toDTO());
+        }
+
+        private ReportJobDTO toDTO() {
+            return new ReportJobDTO(id, status, reportId, error);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ru.skypro.lessons.springboot.weblibrary.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.skypro.lessons.springboot.weblibrary.cache.EmployeeDataVersion;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportJobDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportJobStatus;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Заранее строит отчёт по отделам раз в {@code app.report.precompute.interval}, если с прошлого
+ * запуска данные о сотрудниках изменились: любое число изменений за интервал даёт один отчёт.
+ * Отчёт отправляется через {@link ReportJobService}, поэтому делит с запросами пользователей
+ * ограниченный пул и объединяется с уже поставленной задачей. Построенный отчёт становится
+ * последним и отдаётся через {@code GET /employees/report/latest}.
+ */
+@Component
+public class ReportPrecomputeJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportPrecomputeJob.class);
+
+    private final ReportJobService reportJobService;
+    private final EmployeeDataVersion employeeDataVersion;
+    private final boolean enabled;
+
+    private final AtomicLong precomputedVersion = new AtomicLong(-1);
+
+    public ReportPrecomputeJob(ReportJobService reportJobService, EmployeeDataVersion employeeDataVersion,
+                               @Value("${app.report.precompute.enabled:false}") boolean enabled) {
+        this.reportJobService = reportJobService;
+        this.employeeDataVersion = employeeDataVersion;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${app.report.precompute.interval:PT1M}")
+    public void scheduledPrecompute() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            precompute();
+        } catch (RuntimeException e) {
+            logger.error("Ошибка предварительного построения отчёта", e);
+        }
+    }
+
+    /**
+     * Возвращает {@code true}, если для новой версии данных отправлена задача построения отчёта.
+     * Версия считается построенной, только когда задача завершилась успешно.
+     */
+    public synchronized boolean precompute() {
+        long version = employeeDataVersion.current();
+        if (version == precomputedVersion.get()) {
+            return false;
+        }
+        ReportJobDTO job = reportJobService.submitDepartmentReport();
+        // Уже выполняющаяся задача могла начаться до изменения данных: её отчёт эту версию
+        // не покрывает, и задача будет отправлена снова при следующем запуске.
+        boolean coversVersion = job.getStatus() == ReportJobStatus.QUEUED;
+        reportJobService.awaitJob(job.getJobId()).thenAccept(result -> {
+            if (result.getStatus() == ReportJobStatus.DONE && coversVersion) {
+                precomputedVersion.accumulateAndGet(version, Math::max);
+                logger.info("Отчёт по отделам построен заранее: " + result.getReportId() + ", версия данных " + version);
+            }
+        });
+        return true;
+    }
+}
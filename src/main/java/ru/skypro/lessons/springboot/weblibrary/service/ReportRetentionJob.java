@@ -0,0 +1,84 @@
+package ru.skypro.lessons.springboot.weblibrary.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skypro.lessons.springboot.weblibrary.repository.ReportContentRepository;
+import ru.skypro.lessons.springboot.weblibrary.repository.ReportRepository;
+import ru.skypro.lessons.springboot.weblibrary.storage.ReportStorage;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Удаляет отчёты старше {@code app.report.retention} порциями по
+ * {@code app.report.retention-batch-size}: каждая порция удаляется в своей транзакции, файлы —
+ * после её фиксации.
+ */
+@Component
+public class ReportRetentionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportRetentionJob.class);
+
+    private final ReportRepository reportRepository;
+    private final ReportContentRepository reportContentRepository;
+    private final ReportStorage reportStorage;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int batchSize;
+
+    public ReportRetentionJob(ReportRepository reportRepository, ReportContentRepository reportContentRepository,
+                              ReportStorage reportStorage, PlatformTransactionManager transactionManager,
+                              @Value("${app.report.retention:30d}") Duration retention,
+                              @Value("${app.report.retention-batch-size:500}") int batchSize) {
+        this.reportRepository = reportRepository;
+        this.reportContentRepository = reportContentRepository;
+        this.reportStorage = reportStorage;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${app.report.retention-cron:0 30 3 * * *}")
+    public void scheduledPrune() {
+        if (retention.isZero() || retention.isNegative()) {
+            return;
+        }
+        prune(LocalDateTime.now().minus(retention));
+    }
+
+    public int prune(LocalDateTime createdBefore) {
+        logger.info("Удаление отчётов, созданных до " + createdBefore);
+        int deletedCount = 0;
+        int batchCount;
+        do {
+            List<String> fileNames = new ArrayList<>();
+            batchCount = transactionTemplate.execute(status -> {
+                List<Object[]> rows = reportRepository.findIdsAndFileNamesCreatedBefore(
+                        createdBefore, PageRequest.of(0, batchSize));
+                if (rows.isEmpty()) {
+                    return 0;
+                }
+                List<Long> ids = new ArrayList<>(rows.size());
+                for (Object[] row : rows) {
+                    ids.add((Long) row[0]);
+                    fileNames.add((String) row[1]);
+                    fileNames.add(ReportStorage.legacyFileName((Long) row[0]));
+                }
+                reportContentRepository.deleteByReportIds(ids);
+                return reportRepository.deleteByIds(ids);
+            });
+            fileNames.forEach(reportStorage::delete);
+            deletedCount += batchCount;
+        } while (batchCount == batchSize);
+        logger.info("Удалено отчётов: " + deletedCount);
+        return deletedCount;
+    }
+}
@@ -0,0 +1,72 @@
+package ru.skypro.lessons.springboot.weblibrary.storage;
+
+import org.springframework.core.io.AbstractResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Распакованное содержимое gzip-файла. Размер берётся из поля ISIZE в конце файла, поэтому
+ * Content-Length и Range работают без распаковки всего файла. ISIZE хранит размер по модулю
+ * 2^32, так что ресурс подходит только для однопоточных gzip-файлов меньше 4 ГБ — такие
+ * пишет {@link ReportStorage}.
+ */
+public class GzipFileResource extends AbstractResource {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final String filename;
+
+    public GzipFileResource(Path path, String filename) {
+        this.path = path;
+        this.filename = filename;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new GZIPInputStream(Files.newInputStream(path), GZIP_BUFFER_SIZE);
+    }
+
+    @Override
+    public boolean exists() {
+        return Files.isRegularFile(path);
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+            file.seek(file.length() - Integer.BYTES);
+            return Integer.toUnsignedLong(Integer.reverseBytes(file.readInt()));
+        }
+    }
+
+    @Override
+    public long lastModified() throws IOException {
+        return Files.getLastModifiedTime(path).toMillis();
+    }
+
+    @Override
+    public String getFilename() {
+        return filename;
+    }
+
+    @Override
+    public String getDescription() {
+        return "gzip file [" + path + "]";
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof GzipFileResource resource && path.equals(resource.path));
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+}
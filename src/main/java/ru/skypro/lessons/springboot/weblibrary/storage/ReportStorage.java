@@ -0,0 +1,150 @@
+package ru.skypro.lessons.springboot.weblibrary.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Каталог файлов отчётов. Отчёт хранится сжатым gzip в файле {@code <имя>.gz}; файлы без
+ * сжатия остались от старых версий и только читаются. Файл пишется во временный файл того же
+ * каталога и атомарно переименовывается, поэтому читатели никогда не видят частично
+ * записанный отчёт.
+ */
+@Component
+public class ReportStorage {
+
+    public static final String COMPRESSED_SUFFIX = ".gz";
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportStorage.class);
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    private static final String CHECKSUM_ALGORITHM = "SHA-256";
+
+    private final Path directory;
+
+    public ReportStorage(@Value("${app.report.directory:reports}") Path directory) {
+        this.directory = directory.toAbsolutePath().normalize();
+    }
+
+    public StoredReportFile write(String fileName, ContentWriter contentWriter) throws IOException {
+        MessageDigest digest = newDigest();
+        long[] size = new long[1];
+        Path path = writeCompressed(fileName, outputStream -> {
+            try (GZIPOutputStream gzipOutputStream =
+                         new GZIPOutputStream(StreamUtils.nonClosing(outputStream), GZIP_BUFFER_SIZE)) {
+                MeasuringOutputStream measuringOutputStream = new MeasuringOutputStream(gzipOutputStream, digest);
+                contentWriter.write(measuringOutputStream);
+                size[0] = measuringOutputStream.count;
+            }
+        });
+        return new StoredReportFile(path, size[0], HexFormat.of().formatHex(digest.digest()));
+    }
+
+    public Path writeCompressed(String fileName, ContentWriter compressedContentWriter) throws IOException {
+        Path target = resolveCompressed(fileName);
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, fileName, ".tmp");
+        try {
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                compressedContentWriter.write(outputStream);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        logger.debug("Файл отчёта записан: " + target);
+        return target;
+    }
+
+    /**
+     * Имя файла для отчёта, содержимое которого осталось в таблице report_content. Старые имена
+     * отчётов точны только до минуты и могут совпадать, поэтому такой файл называется по id.
+     */
+    public static String legacyFileName(long reportId) {
+        return "legacy_" + reportId + ".json";
+    }
+
+    public Path resolveCompressed(String fileName) {
+        return resolve(fileName + COMPRESSED_SUFFIX);
+    }
+
+    public Path resolve(String fileName) {
+        Path path = directory.resolve(fileName).normalize();
+        if (!path.getParent().equals(directory)) {
+            throw new IllegalArgumentException("Некорректное имя файла отчёта: " + fileName);
+        }
+        return path;
+    }
+
+    public void delete(String fileName) {
+        try {
+            Files.deleteIfExists(resolveCompressed(fileName));
+            Files.deleteIfExists(resolve(fileName));
+        } catch (IOException e) {
+            logger.error("Ошибка удаления файла отчёта: " + fileName, e);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Записанный файл отчёта: размер и SHA-256 несжатого содержимого.
+     */
+    public record StoredReportFile(Path path, long sizeBytes, String checksum) {
+    }
+
+    private static final class MeasuringOutputStream extends FilterOutputStream {
+
+        private final MessageDigest digest;
+        private long count;
+
+        private MeasuringOutputStream(OutputStream outputStream, MessageDigest digest) {
+            super(outputStream);
+            this.digest = digest;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            digest.update((byte) b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            digest.update(bytes, offset, length);
+            count += length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    @FunctionalInterface
+    public interface ContentWriter {
+        void write(OutputStream outputStream) throws IOException;
+    }
+}
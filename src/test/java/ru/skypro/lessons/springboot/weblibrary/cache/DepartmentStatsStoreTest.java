@@ -0,0 +1,170 @@
+package ru.skypro.lessons.springboot.weblibrary.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeBulkPatchDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeePatchDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.SalaryRaiseDTO;
+import ru.skypro.lessons.springboot.weblibrary.model.Department;
+import ru.skypro.lessons.springboot.weblibrary.model.Employee;
+import ru.skypro.lessons.springboot.weblibrary.model.Position;
+import ru.skypro.lessons.springboot.weblibrary.repository.DepartmentRepository;
+import ru.skypro.lessons.springboot.weblibrary.repository.EmployeeRepository;
+import ru.skypro.lessons.springboot.weblibrary.repository.PositionRepository;
+import ru.skypro.lessons.springboot.weblibrary.service.EmployeeService;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = "app.department-stats.enabled=true")
+class DepartmentStatsStoreTest {
+
+    @Autowired
+    DepartmentStatsStore departmentStatsStore;
+    @Autowired
+    EmployeeService employeeService;
+
+    @Autowired
+    PositionRepository positionRepository;
+    @Autowired
+    DepartmentRepository departmentRepository;
+    @Autowired
+    EmployeeRepository employeeRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private Position developer;
+    private Department finance;
+
+    @BeforeEach
+    public void setup() {
+        developer = positionRepository.save(new Position("Developer"));
+        positionRepository.save(new Position("Manager"));
+        finance = departmentRepository.save(new Department("Finance"));
+        departmentRepository.saveAll(List.of(new Department("IT"), new Department("HR")));
+        departmentStatsStore.rebuild();
+    }
+
+    @AfterEach
+    public void resetDatabase() {
+        employeeRepository.deleteAll();
+        positionRepository.deleteAll();
+        departmentRepository.deleteAll();
+        departmentStatsStore.rebuild();
+    }
+
+    @DisplayName("Инкрементальная статистика совпадает с GROUP BY после добавлений, изменений и удалений")
+    @Test
+    public void testIncrementalStatsMatchSqlAggregate() {
+        employeeService.addEmployee(List.of(
+                new EmployeeDTO("Anna", 5000, "Developer", "IT"),
+                new EmployeeDTO("Boris", 9000, "Developer", "IT"),
+                new EmployeeDTO("Vera", 3000, "Manager", "IT"),
+                new EmployeeDTO("Gleb", 3000, "Manager", "Finance"),
+                new EmployeeDTO("Daria", 7000, "Manager", "Finance"),
+                new EmployeeDTO("Egor", 4000, "Developer", "HR")));
+        List<Employee> employees = employeeRepository.findAll();
+        Long boris = idOf(employees, "Boris");
+        Long vera = idOf(employees, "Vera");
+        Long egor = idOf(employees, "Egor");
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status ->
+                employeeService.editEmployee(boris, new EmployeeDTO("Boris", 6000, "Developer", "Finance")));
+        transactionTemplate.executeWithoutResult(status -> employeeService.deleteEmployeeById(vera));
+        transactionTemplate.executeWithoutResult(status -> employeeService.deleteEmployeeById(egor));
+
+        assertTrue(departmentStatsStore.isReady());
+        assertReportEquals(getSqlReport(), departmentStatsStore.getReport());
+        assertTrue(departmentStatsStore.reconcile());
+        assertEquals(List.of("Finance", "IT"), departmentStatsStore.getReport().stream()
+                .map(ReportDTO::getDepartmentName)
+                .toList());
+    }
+
+    @DisplayName("Статистика не меняется после отклонённого массового изменения и обновляется после успешного")
+    @Test
+    public void testBulkPatchUpdatesStatsOnlyAfterCommit() {
+        employeeService.addEmployee(List.of(
+                new EmployeeDTO("Anna", 5000, "Developer", "IT"),
+                new EmployeeDTO("Boris", 8000, "Manager", "Finance")));
+        Long anna = idOf(employeeRepository.findAll(), "Anna");
+
+        assertThrows(IllegalArgumentException.class, () -> employeeService.patchEmployees(new EmployeeBulkPatchDTO(
+                List.of(new EmployeePatchDTO(anna, null, 9000, null, null, null)),
+                new SalaryRaiseDTO("IT", null, BigDecimal.valueOf(-100)))));
+        assertReportEquals(getSqlReport(), departmentStatsStore.getReport());
+
+        employeeService.patchEmployees(new EmployeeBulkPatchDTO(
+                List.of(new EmployeePatchDTO(anna, null, 9000, null, "Finance", null)), null));
+        assertReportEquals(getSqlReport(), departmentStatsStore.getReport());
+        assertEquals(List.of("Finance"), departmentStatsStore.getReport().stream()
+                .map(ReportDTO::getDepartmentName)
+                .toList());
+    }
+
+    @DisplayName("Сверка перестраивает статистику после изменений в обход сервиса")
+    @Test
+    public void testReconcileRebuildsAfterExternalWrite() {
+        employeeService.addEmployee(List.of(new EmployeeDTO("Anna", 5000, "Developer", "IT")));
+        employeeRepository.save(new Employee("Outsider", 12000, developer, finance));
+
+        assertFalse(departmentStatsStore.reconcile());
+
+        assertTrue(departmentStatsStore.reconcile());
+        assertReportEquals(getSqlReport(), departmentStatsStore.getReport());
+    }
+
+    private List<ReportDTO> getSqlReport() {
+        return employeeRepository.getSalaryTotalsByDepartment().stream()
+                .map(row -> {
+                    long count = ((Number) row[1]).longValue();
+                    ReportDTO reportDTO = new ReportDTO();
+                    reportDTO.setDepartmentName((String) row[0]);
+                    reportDTO.setEmployeeCount(count);
+                    reportDTO.setMinSalary(((Number) row[3]).intValue());
+                    reportDTO.setMaxSalary(((Number) row[4]).intValue());
+                    reportDTO.setAverageSalary(BigDecimal.valueOf(((Number) row[2]).longValue())
+                            .divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP));
+                    return reportDTO;
+                })
+                .sorted(Comparator.comparing(ReportDTO::getDepartmentName))
+                .toList();
+    }
+
+    private static void assertReportEquals(List<ReportDTO> expected, List<ReportDTO> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            ReportDTO expectedRow = expected.get(i);
+            ReportDTO actualRow = actual.get(i);
+            assertEquals(expectedRow.getDepartmentName(), actualRow.getDepartmentName());
+            assertEquals(expectedRow.getEmployeeCount(), actualRow.getEmployeeCount());
+            assertEquals(expectedRow.getMaxSalary(), actualRow.getMaxSalary());
+            assertEquals(expectedRow.getMinSalary(), actualRow.getMinSalary());
+            assertEquals(0, expectedRow.getAverageSalary().setScale(2, RoundingMode.HALF_UP)
+                    .compareTo(actualRow.getAverageSalary()));
+        }
+    }
+
+    private static Long idOf(List<Employee> employees, String name) {
+        return employees.stream()
+                .filter(employee -> employee.getName().equals(name))
+                .findFirst()
+                .orElseThrow()
+                .getId();
+    }
+}
@@ -0,0 +1,89 @@
+package ru.skypro.lessons.springboot.weblibrary.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.skypro.lessons.springboot.weblibrary.model.Department;
+import ru.skypro.lessons.springboot.weblibrary.model.Position;
+import ru.skypro.lessons.springboot.weblibrary.repository.DepartmentRepository;
+import ru.skypro.lessons.springboot.weblibrary.repository.PositionRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DictionaryCacheTest {
+
+    @Mock
+    private PositionRepository positionRepositoryMock;
+    @Mock
+    private DepartmentRepository departmentRepositoryMock;
+    private DictionaryCache dictionaryCache;
+
+    @BeforeEach
+    public void setup() {
+        dictionaryCache = new DictionaryCache(positionRepositoryMock, departmentRepositoryMock);
+    }
+
+    @DisplayName("Справочник загружается одним запросом и дальше отвечает из памяти")
+    @Test
+    public void testResolvePositionsLoadsOnce() {
+        when(positionRepositoryMock.findAll()).thenReturn(List.of(new Position(1L, "Boss"), new Position(2L, "Manager")));
+
+        Map<String, Position> first = dictionaryCache.resolvePositions(Set.of("Boss", "Manager"));
+        Position second = dictionaryCache.getPosition("Manager");
+
+        assertEquals(1L, first.get("Boss").getId());
+        assertEquals(2L, first.get("Manager").getId());
+        assertEquals(2L, second.getId());
+        verify(positionRepositoryMock, times(1)).findAll();
+        verify(positionRepositoryMock, never()).findByNameIn(anyCollection());
+    }
+
+    @DisplayName("Недостающие имена дочитываются одним запросом IN")
+    @Test
+    public void testResolveDepartmentsLoadsMissingNamesInBulk() {
+        when(departmentRepositoryMock.findAll()).thenReturn(List.of(new Department(1L, "Sales")));
+        when(departmentRepositoryMock.findByNameIn(anyCollection()))
+                .thenReturn(List.of(new Department(2L, "Finance"), new Department(3L, "IT")));
+
+        Map<String, Department> departments = dictionaryCache.resolveDepartments(Set.of("Sales", "Finance", "IT"));
+        dictionaryCache.getDepartment("IT");
+
+        assertEquals(3, departments.size());
+        assertEquals(3L, departments.get("IT").getId());
+        verify(departmentRepositoryMock, times(1)).findByNameIn(anyCollection());
+    }
+
+    @DisplayName("Неизвестное имя приводит к исключению")
+    @Test
+    public void testResolveUnknownNameThrows() {
+        when(positionRepositoryMock.findAll()).thenReturn(List.of(new Position(1L, "Boss")));
+        when(positionRepositoryMock.findByNameIn(anyCollection())).thenReturn(List.of());
+
+        assertThrows(NoSuchElementException.class, () -> dictionaryCache.getPosition("Developer"));
+    }
+
+    @DisplayName("После сброса справочник перечитывается из БД")
+    @Test
+    public void testEvictPositionsReloads() {
+        when(positionRepositoryMock.findAll())
+                .thenReturn(List.of(new Position(1L, "Boss")))
+                .thenReturn(List.of(new Position(5L, "Boss")));
+
+        assertEquals(1L, dictionaryCache.getPosition("Boss").getId());
+        dictionaryCache.evictPositions();
+
+        assertEquals(5L, dictionaryCache.getPosition("Boss").getId());
+        verify(positionRepositoryMock, times(2)).findAll();
+    }
+}
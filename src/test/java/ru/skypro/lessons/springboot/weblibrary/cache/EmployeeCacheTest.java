@@ -0,0 +1,127 @@
+package ru.skypro.lessons.springboot.weblibrary.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeDTO;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmployeeCache employeeCache;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        employeeCache = new EmployeeCache(2, Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @DisplayName("Попадания, промахи и вытеснения попадают в метрики")
+    @Test
+    public void testMetrics() {
+        employeeCache.get(1L, id -> employee(1));
+        employeeCache.get(1L, id -> employee(1));
+        employeeCache.get(2L, id -> employee(2));
+        employeeCache.get(3L, id -> employee(3));
+        employeeCache.getCache().cleanUp();
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(3.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.evictions").functionCounter().count());
+        assertTrue(employeeCache.getCache().estimatedSize() <= 2);
+    }
+
+    @DisplayName("Загрузка, начатая до записи, не оставляет устаревшее значение после инвалидации")
+    @Test
+    public void testInvalidateDuringLoad() throws Exception {
+        AtomicInteger database = new AtomicInteger(1000);
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch writeCommitted = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<EmployeeDTO> reader = executor.submit(() -> employeeCache.get(1L, id -> {
+                int salary = database.get();
+                loadStarted.countDown();
+                await(writeCommitted);
+                return employee(salary);
+            }));
+            loadStarted.await();
+            Future<?> writer = executor.submit(() -> {
+                database.set(2000);
+                writeCommitted.countDown();
+                employeeCache.invalidate(1L);
+            });
+            writer.get(5, TimeUnit.SECONDS);
+            reader.get(5, TimeUnit.SECONDS);
+
+            EmployeeDTO afterWrite = employeeCache.get(1L, id -> employee(database.get()));
+            assertEquals(2000, afterWrite.getSalary());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @DisplayName("После возврата из записи читатели не получают устаревшие данные")
+    @Test
+    public void testNoStaleReadsAfterWrite() throws Exception {
+        AtomicLong database = new AtomicLong();
+        AtomicLong committed = new AtomicLong();
+        AtomicInteger staleReads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                readers.add(executor.submit(() -> {
+                    for (int j = 0; j < 20_000; j++) {
+                        long committedBefore = committed.get();
+                        long salary = employeeCache.get(1L, id -> employee((int) database.get())).getSalary();
+                        if (salary < committedBefore) {
+                            staleReads.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            Future<?> writer = executor.submit(() -> {
+                for (int version = 1; version <= 2_000; version++) {
+                    database.set(version);
+                    employeeCache.invalidate(1L);
+                    committed.set(version);
+                }
+            });
+            writer.get(30, TimeUnit.SECONDS);
+            for (Future<?> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, staleReads.get());
+    }
+
+    private static EmployeeDTO employee(int salary) {
+        return new EmployeeDTO("Anna", salary, "Manager", "Sales");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
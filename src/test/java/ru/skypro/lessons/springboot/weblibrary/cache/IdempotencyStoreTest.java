@@ -0,0 +1,113 @@
+package ru.skypro.lessons.springboot.weblibrary.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.skypro.lessons.springboot.weblibrary.repository.IdempotencyRecordRepository;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class IdempotencyStoreTest {
+
+    @Autowired
+    IdempotencyStore idempotencyStore;
+    @Autowired
+    IdempotencyRecordRepository idempotencyRecordRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    public void resetDatabase() {
+        idempotencyRecordRepository.deleteAll();
+    }
+
+    @DisplayName("Одновременные повторы с одним ключом выполняют работу один раз и получают один ответ")
+    @Test
+    public void testConcurrentRetriesExecuteOnce() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<ResponseEntity<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> idempotencyStore.execute("import-1", "body", () -> {
+                    executions.incrementAndGet();
+                    started.countDown();
+                    awaitUninterruptibly(release);
+                    return ResponseEntity.ok("done");
+                })));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            release.countDown();
+            for (Future<ResponseEntity<String>> future : futures) {
+                assertEquals("done", future.get(5, TimeUnit.SECONDS).getBody());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, executions.get());
+    }
+
+    @DisplayName("Ответ повторяется из БД, если его нет в локальном кэше")
+    @Test
+    public void testReplaysFromDatabase() throws IOException {
+        idempotencyStore.execute("import-2", "body", () -> ResponseEntity.status(HttpStatus.CREATED).body("created"));
+        IdempotencyStore otherInstance = new IdempotencyStore(idempotencyRecordRepository, transactionManager,
+                Duration.ofHours(1), 100);
+
+        ResponseEntity<String> replayed = otherInstance.execute("import-2", "body", () -> {
+            throw new AssertionError("Запрос не должен выполняться повторно");
+        });
+
+        assertEquals(HttpStatus.CREATED, replayed.getStatusCode());
+        assertEquals("created", replayed.getBody());
+        assertEquals("true", replayed.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertThrows(IllegalArgumentException.class, () -> otherInstance.execute("import-2", "other body",
+                () -> ResponseEntity.ok("other")));
+    }
+
+    @DisplayName("Ключ освобождается после ошибки и занимается заново после истечения TTL")
+    @Test
+    public void testReleasesKeyAfterFailureAndExpiry() throws Exception {
+        assertThrows(IOException.class, () -> idempotencyStore.execute("import-3", "body", () -> {
+            throw new IOException("Ошибка чтения файла");
+        }));
+        assertEquals("retried", idempotencyStore.execute("import-3", "body", () -> ResponseEntity.ok("retried"))
+                .getBody());
+
+        IdempotencyStore expiringStore = new IdempotencyStore(idempotencyRecordRepository, transactionManager,
+                Duration.ofMillis(1), 100);
+        expiringStore.execute("import-4", "body", () -> ResponseEntity.ok("first"));
+        Thread.sleep(20);
+        assertEquals("second", expiringStore.execute("import-4", "body", () -> ResponseEntity.ok("second"))
+                .getBody());
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
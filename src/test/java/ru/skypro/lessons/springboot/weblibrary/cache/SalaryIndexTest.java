@@ -0,0 +1,190 @@
+package ru.skypro.lessons.springboot.weblibrary.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.skypro.lessons.springboot.weblibrary.repository.EmployeeRepository;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SalaryIndexTest {
+
+    @Mock
+    private EmployeeRepository employeeRepositoryMock;
+    @Mock
+    private PlatformTransactionManager transactionManagerMock;
+    private SalaryIndex salaryIndex;
+
+    @BeforeEach
+    public void setup() {
+        salaryIndex = new SalaryIndex(true, employeeRepositoryMock, transactionManagerMock);
+    }
+
+    @DisplayName("Индекс строится из БД и отвечает на запросы по зарплате")
+    @Test
+    public void testRebuildAndQuery() {
+        when(employeeRepositoryMock.streamIdsAndSalaries()).thenReturn(Stream.<Object[]>of(
+                new Object[]{1L, 5000, 0L}, new Object[]{2L, 12000, 0L},
+                new Object[]{3L, 2000, 0L}, new Object[]{4L, 12000, 0L}));
+
+        assertFalse(salaryIndex.isReady());
+        salaryIndex.rebuild();
+
+        assertTrue(salaryIndex.isReady());
+        assertArrayEquals(new long[]{1L, 2L, 4L}, salaryIndex.findIdsWithSalaryGreaterThan(2000));
+        assertArrayEquals(new long[]{2L, 4L}, salaryIndex.findIdsWithHighestSalary());
+        assertArrayEquals(new long[0], salaryIndex.findIdsWithSalaryGreaterThan(12000));
+        assertArrayEquals(new long[0], salaryIndex.findIdsWithSalaryGreaterThan(Integer.MAX_VALUE));
+    }
+
+    @DisplayName("Изменения зарплат и удаления отражаются в индексе")
+    @Test
+    public void testPutAndRemove() {
+        when(employeeRepositoryMock.streamIdsAndSalaries()).thenReturn(Stream.empty());
+        salaryIndex.rebuild();
+
+        salaryIndex.put(1L, 3000, 0L);
+        salaryIndex.put(2L, -100, 0L);
+        salaryIndex.put(3L, 7000, 0L);
+        salaryIndex.put(1L, 9000, 1L);
+        salaryIndex.remove(3L);
+
+        assertArrayEquals(new long[]{1L}, salaryIndex.findIdsWithHighestSalary());
+        assertArrayEquals(new long[]{2L, 1L}, salaryIndex.findIdsWithSalaryGreaterThan(Integer.MIN_VALUE));
+        assertArrayEquals(new long[]{1L}, salaryIndex.findIdsWithSalaryGreaterThan(0));
+    }
+
+    @DisplayName("Много изменений подряд дают тот же результат, что и эталонная сортировка")
+    @Test
+    public void testManyPutsAndRemoves() {
+        when(employeeRepositoryMock.streamIdsAndSalaries()).thenReturn(Stream.<Object[]>of(
+                new Object[]{1L, 100, 0L}, new Object[]{2L, 200, 0L}, new Object[]{3L, 300, 0L}));
+        salaryIndex.rebuild();
+        Map<Long, Integer> expected = new HashMap<>(Map.of(1L, 100, 2L, 200, 3L, 300));
+        Set<Long> removed = new HashSet<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            long id = random.nextInt(5_000);
+            if (random.nextInt(100) == 0) {
+                salaryIndex.remove(id);
+                expected.remove(id);
+                removed.add(id);
+            } else {
+                int salary = random.nextInt(1_000);
+                salaryIndex.put(id, salary, i);
+                if (!removed.contains(id)) {
+                    expected.put(id, salary);
+                }
+            }
+        }
+
+        int threshold = 500;
+        long[] expectedIds = expected.entrySet().stream()
+                .filter(entry -> entry.getValue() > threshold)
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                .mapToLong(Map.Entry::getKey)
+                .toArray();
+        assertArrayEquals(expectedIds, salaryIndex.findIdsWithSalaryGreaterThan(threshold));
+        int maxSalary = expected.values().stream().mapToInt(Integer::intValue).max().orElseThrow();
+        long[] expectedHighest = expected.entrySet().stream()
+                .filter(entry -> entry.getValue() == maxSalary)
+                .mapToLong(Map.Entry::getKey)
+                .sorted()
+                .toArray();
+        assertArrayEquals(expectedHighest, salaryIndex.findIdsWithHighestSalary());
+    }
+
+    @DisplayName("Изменение со старой версией и изменение после удаления не применяются")
+    @Test
+    public void testStalePutIsIgnored() {
+        when(employeeRepositoryMock.streamIdsAndSalaries()).thenReturn(Stream.<Object[]>of(
+                new Object[]{1L, 5000, 3L}, new Object[]{2L, 4000, 0L}));
+        salaryIndex.rebuild();
+
+        salaryIndex.put(1L, 9000, 5L);
+        salaryIndex.put(1L, 7000, 4L);
+        salaryIndex.put(2L, 3000, 2L);
+        salaryIndex.remove(2L);
+        salaryIndex.put(2L, 8000, 3L);
+
+        assertArrayEquals(new long[]{1L}, salaryIndex.findIdsWithSalaryGreaterThan(Integer.MIN_VALUE));
+        assertArrayEquals(new long[]{1L}, salaryIndex.findIdsWithHighestSalary());
+        assertArrayEquals(new long[0], salaryIndex.findIdsWithSalaryGreaterThan(9000));
+    }
+
+    @DisplayName("Id вне 32 бит выключает индекс до перестроения")
+    @Test
+    public void testIdOutOfRangeDisablesIndex() {
+        when(employeeRepositoryMock.streamIdsAndSalaries())
+                .thenReturn(Stream.<Object[]>of(new Object[]{1L, 5000, 0L}))
+                .thenReturn(Stream.<Object[]>of(new Object[]{1L, 5000, 0L}, new Object[]{1L << 32, 8000, 0L}));
+        salaryIndex.rebuild();
+        assertTrue(salaryIndex.isReady());
+
+        salaryIndex.put(1L << 32, 8000, 0L);
+        assertFalse(salaryIndex.isReady());
+        assertArrayEquals(new long[0], salaryIndex.findIdsWithHighestSalary());
+
+        salaryIndex.rebuild();
+        assertFalse(salaryIndex.isReady());
+    }
+
+    @DisplayName("Проверка согласованности перестраивает индекс при расхождении с БД")
+    @Test
+    public void testVerifyRebuildsOnMismatch() {
+        when(employeeRepositoryMock.streamIdsAndSalaries())
+                .thenReturn(Stream.<Object[]>of(new Object[]{1L, 5000, 0L}))
+                .thenReturn(Stream.<Object[]>of(new Object[]{1L, 5000, 0L}, new Object[]{2L, 8000, 0L}))
+                .thenReturn(Stream.<Object[]>of(new Object[]{1L, 5000, 0L}, new Object[]{2L, 8000, 0L}))
+                .thenReturn(Stream.<Object[]>of(new Object[]{1L, 5000, 0L}, new Object[]{2L, 8000, 0L}));
+        salaryIndex.rebuild();
+
+        assertFalse(salaryIndex.verify());
+        assertArrayEquals(new long[]{2L}, salaryIndex.findIdsWithHighestSalary());
+        assertTrue(salaryIndex.verify());
+    }
+
+    @DisplayName("Проверка по расписанию сверяет только построенный индекс")
+    @Test
+    public void testScheduledVerify() {
+        when(employeeRepositoryMock.streamIdsAndSalaries())
+                .thenReturn(Stream.<Object[]>of(new Object[]{1L, 5000, 0L}))
+                .thenReturn(Stream.<Object[]>of(new Object[]{1L, 6000, 1L}))
+                .thenReturn(Stream.<Object[]>of(new Object[]{1L, 6000, 1L}));
+
+        salaryIndex.scheduledVerify();
+        verifyNoInteractions(employeeRepositoryMock);
+
+        salaryIndex.rebuild();
+        salaryIndex.scheduledVerify();
+
+        assertArrayEquals(new long[]{1L}, salaryIndex.findIdsWithSalaryGreaterThan(5000));
+    }
+
+    @DisplayName("Выключенный индекс не строится и не принимает изменения")
+    @Test
+    public void testDisabledIndex() {
+        SalaryIndex disabledIndex = new SalaryIndex(false, employeeRepositoryMock, transactionManagerMock);
+
+        disabledIndex.onApplicationReady();
+        disabledIndex.put(1L, 1000, 0L);
+
+        assertFalse(disabledIndex.isReady());
+        assertArrayEquals(new long[0], disabledIndex.findIdsWithHighestSalary());
+    }
+}
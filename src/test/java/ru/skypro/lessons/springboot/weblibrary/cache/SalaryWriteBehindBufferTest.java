@@ -0,0 +1,126 @@
+package ru.skypro.lessons.springboot.weblibrary.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeBulkPatchDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeePatchDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.SalaryRaiseDTO;
+import ru.skypro.lessons.springboot.weblibrary.model.Department;
+import ru.skypro.lessons.springboot.weblibrary.model.Employee;
+import ru.skypro.lessons.springboot.weblibrary.model.Position;
+import ru.skypro.lessons.springboot.weblibrary.repository.DepartmentRepository;
+import ru.skypro.lessons.springboot.weblibrary.repository.EmployeeRepository;
+import ru.skypro.lessons.springboot.weblibrary.repository.PositionRepository;
+import ru.skypro.lessons.springboot.weblibrary.service.EmployeeService;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "app.salary-write-behind.enabled=true",
+        "app.salary-write-behind.max-batch-size=3",
+        "app.salary-write-behind.flush-interval=PT1H"
+})
+class SalaryWriteBehindBufferTest {
+
+    @Autowired
+    SalaryWriteBehindBuffer salaryWriteBehindBuffer;
+    @Autowired
+    EmployeeService employeeService;
+
+    @Autowired
+    PositionRepository positionRepository;
+    @Autowired
+    DepartmentRepository departmentRepository;
+    @Autowired
+    EmployeeRepository employeeRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private Employee anna;
+    private Employee boris;
+
+    @BeforeEach
+    public void setup() {
+        Position developer = positionRepository.save(new Position("Developer"));
+        Department it = departmentRepository.save(new Department("IT"));
+        anna = new Employee("Anna", 5000, developer, it);
+        boris = new Employee("Boris", 4000, developer, it);
+        employeeRepository.saveAll(List.of(anna, boris));
+    }
+
+    @AfterEach
+    public void resetDatabase() {
+        salaryWriteBehindBuffer.flush();
+        employeeRepository.deleteAll();
+        positionRepository.deleteAll();
+        departmentRepository.deleteAll();
+    }
+
+    @DisplayName("Несколько изменений одного сотрудника записываются одним последним значением")
+    @Test
+    public void testCoalescesUpdatesPerEmployee() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertFalse(employeeService.updateSalary(anna.getId(), 5100));
+        assertFalse(employeeService.updateSalary(anna.getId(), 5200));
+        assertFalse(employeeService.updateSalary(boris.getId(), 4100));
+        assertEquals(0, statistics.getTransactionCount());
+
+        assertEquals(2, salaryWriteBehindBuffer.getPendingCount());
+        assertEquals(5000, employeeService.getEmployeeById(anna.getId()).getSalary());
+
+        assertEquals(2, salaryWriteBehindBuffer.flush());
+        assertEquals(0, salaryWriteBehindBuffer.getPendingCount());
+        assertEquals(5200, employeeService.getEmployeeById(anna.getId()).getSalary());
+        assertEquals(4100, employeeService.getEmployeeById(boris.getId()).getSalary());
+        assertTrue(salaryWriteBehindBuffer.getCoalescingRatio() > 0);
+    }
+
+    @DisplayName("Прямая запись зарплаты после постановки в буфер не перетирается сбросом")
+    @Test
+    public void testDirectWriteAfterOfferSurvivesFlush() {
+        employeeService.updateSalary(anna.getId(), 5100);
+        employeeService.updateSalary(boris.getId(), 4100);
+
+        employeeService.editEmployee(anna.getId(), new EmployeeDTO("Anna", 7000, "Developer", "IT"));
+        assertEquals(1, salaryWriteBehindBuffer.getPendingCount());
+        employeeService.patchEmployees(new EmployeeBulkPatchDTO(null, new SalaryRaiseDTO("IT", null, BigDecimal.TEN)));
+        assertEquals(0, salaryWriteBehindBuffer.getPendingCount());
+
+        salaryWriteBehindBuffer.flush();
+        assertEquals(7700, employeeRepository.findById(anna.getId()).orElseThrow().getSalary());
+        assertEquals(4510, employeeRepository.findById(boris.getId()).orElseThrow().getSalary());
+
+        employeeService.updateSalary(anna.getId(), 8000);
+        employeeService.patchEmployees(new EmployeeBulkPatchDTO(
+                List.of(new EmployeePatchDTO(anna.getId(), null, 9000, null, null, null)), null));
+        salaryWriteBehindBuffer.flush();
+        assertEquals(9000, employeeRepository.findById(anna.getId()).orElseThrow().getSalary());
+    }
+
+    @DisplayName("Полная пачка сбрасывается сразу, изменения удалённых сотрудников отбрасываются")
+    @Test
+    public void testFlushesFullBatchAndDropsDeletedEmployees() {
+        employeeService.updateSalary(anna.getId(), 6000);
+        employeeService.updateSalary(boris.getId(), 7000);
+        employeeService.updateSalary(999999L, 1000);
+
+        assertEquals(0, salaryWriteBehindBuffer.getPendingCount());
+        assertEquals(6000, employeeRepository.findById(anna.getId()).orElseThrow().getSalary());
+        assertEquals(7000, employeeRepository.findById(boris.getId()).orElseThrow().getSalary());
+        assertEquals(1, employeeRepository.findById(anna.getId()).orElseThrow().getVersion());
+    }
+}
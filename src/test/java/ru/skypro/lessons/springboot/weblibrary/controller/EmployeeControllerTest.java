@@ -6,6 +6,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
@@ -13,19 +14,30 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.util.FileSystemUtils;
 import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeDTO;
 import ru.skypro.lessons.springboot.weblibrary.dto.PositionDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportJobDTO;
 import ru.skypro.lessons.springboot.weblibrary.model.Department;
 import ru.skypro.lessons.springboot.weblibrary.model.Employee;
 import ru.skypro.lessons.springboot.weblibrary.model.Position;
 import ru.skypro.lessons.springboot.weblibrary.model.Report;
+import ru.skypro.lessons.springboot.weblibrary.model.ReportContent;
 import ru.skypro.lessons.springboot.weblibrary.repository.DepartmentRepository;
 import ru.skypro.lessons.springboot.weblibrary.repository.EmployeeRepository;
 import ru.skypro.lessons.springboot.weblibrary.repository.PositionRepository;
+import ru.skypro.lessons.springboot.weblibrary.repository.ReportContentRepository;
 import ru.skypro.lessons.springboot.weblibrary.repository.ReportRepository;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -47,15 +59,25 @@ public class EmployeeControllerTest {
     EmployeeRepository employeeRepository;
     @Autowired
     ReportRepository reportRepository;
+    @Autowired
+    ReportContentRepository reportContentRepository;
 
     @Autowired
     ObjectMapper objectMapper;
 
+    @Value("${app.report.directory}")
+    Path reportDirectory;
+
     @AfterEach
+    @SneakyThrows
     public void resetDatabase() {
         positionRepository.deleteAll();
         departmentRepository.deleteAll();
         employeeRepository.deleteAll();
+        reportContentRepository.deleteAll();
+        reportRepository.deleteAll();
+        // Контекст и БД создаются заново для каждого теста, и id отчётов повторяются.
+        FileSystemUtils.deleteRecursively(reportDirectory);
     }
 
     @DisplayName("Добавление новых сотрудников успешно")
@@ -130,6 +152,46 @@ public class EmployeeControllerTest {
                 .andExpect(jsonPath("$.departmentName").value("Sales"));
     }
 
+    @DisplayName("Изменение сотрудника с устаревшей версией возвращает 409")
+    @Test
+    @SneakyThrows
+    void editEmployeeWithStaleVersionIsConflict() {
+        Position position = new Position("Manager");
+        Department department = new Department("Sales");
+        Employee employee = new Employee("Vladimir", 4000, position, department);
+        positionRepository.save(position);
+        departmentRepository.save(department);
+        employeeRepository.save(employee);
+        Long employeeId = employee.getId();
+
+        mockMvc.perform(get("/employees/{id}", employeeId)
+                        .with(user("user_test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""));
+
+        String firstEdit = new ObjectMapper().writeValueAsString(new EmployeeDTO("Andrey", 2000, "Manager", "Sales"));
+        mockMvc.perform(put("/employees/{id}", employeeId)
+                        .header("If-Match", "\"0\"")
+                        .with(user("user_admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(firstEdit))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+
+        String staleEdit = new ObjectMapper().writeValueAsString(new EmployeeDTO("Maria", 3000, "Manager", "Sales"));
+        mockMvc.perform(put("/employees/{id}", employeeId)
+                        .header("If-Match", "\"0\"")
+                        .with(user("user_admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(staleEdit))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/employees/{id}", employeeId)
+                        .with(user("user_test").roles("USER")))
+                .andExpect(jsonPath("$.name").value("Andrey"))
+                .andExpect(header().string("ETag", "\"1\""));
+    }
+
     @DisplayName("Изменение сотрудника не успешно")
     @Test
     @SneakyThrows
@@ -150,6 +212,194 @@ public class EmployeeControllerTest {
                 .andExpect(status().is4xxClientError());
     }
 
+    @DisplayName("Массовое удаление сотрудников по отделу и по списку id")
+    @Test
+    @SneakyThrows
+    void deleteEmployeesInBulk() {
+        Position position = new Position("Manager");
+        Department sales = new Department("Sales");
+        Department finance = new Department("Finance");
+        positionRepository.save(position);
+        departmentRepository.saveAll(List.of(sales, finance));
+        Employee anna = new Employee("Anna", 5000, position, finance);
+        employeeRepository.saveAll(List.of(
+                new Employee("Vladimir", 4000, position, sales),
+                new Employee("Maria", 2000, position, sales),
+                anna,
+                new Employee("Oleg", 3000, position, finance)));
+
+        mockMvc.perform(delete("/employees")
+                        .param("department", "Sales")
+                        .with(user("user_admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2));
+
+        mockMvc.perform(delete("/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + anna.getId() + ", 999999]")
+                        .with(user("user_admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(1));
+
+        mockMvc.perform(delete("/employees")
+                        .with(user("user_admin").roles("ADMIN")))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(delete("/employees")
+                        .param("department", "Finance")
+                        .with(user("user_test").roles("USER")))
+                .andExpect(status().isForbidden());
+
+        assertEquals(List.of("Oleg"), employeeRepository.findAll().stream().map(Employee::getName).toList());
+    }
+
+    @DisplayName("Массовое частичное изменение сотрудников и повышение зарплат отделу")
+    @Test
+    @SneakyThrows
+    void patchEmployeesInBulk() {
+        Position position = new Position("Manager");
+        Department sales = new Department("Sales");
+        Department finance = new Department("Finance");
+        positionRepository.save(position);
+        departmentRepository.saveAll(List.of(sales, finance));
+        Employee anna = new Employee("Anna", 5000, position, finance);
+        Employee oleg = new Employee("Oleg", 3000, position, sales);
+        employeeRepository.saveAll(List.of(anna, oleg));
+        String patches = objectMapper.writeValueAsString(Map.of("patches", List.of(
+                Map.of("id", anna.getId(), "salary", 6000, "departmentName", "Sales"),
+                Map.of("id", oleg.getId(), "name", "Oleg Petrov", "version", 42),
+                Map.of("id", 999999, "salary", 1000))));
+
+        mockMvc.perform(patch("/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(patches)
+                        .with(user("user_admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updatedCount").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$.results[1].status").value("CONFLICT"))
+                .andExpect(jsonPath("$.results[2].status").value("NOT_FOUND"));
+
+        mockMvc.perform(patch("/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"salaryRaise\": {\"departmentName\": \"Sales\", \"percent\": 10}}")
+                        .with(user("user_admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updatedCount").value(2));
+
+        mockMvc.perform(patch("/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}")
+                        .with(user("user_admin").roles("ADMIN")))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(patches)
+                        .with(user("user_test").roles("USER")))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/employees/{id}", anna.getId())
+                        .with(user("user_test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.salary").value(6600))
+                .andExpect(jsonPath("$.departmentName").value("Sales"));
+        mockMvc.perform(get("/employees/{id}", oleg.getId())
+                        .with(user("user_test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Oleg"))
+                .andExpect(jsonPath("$.salary").value(3300));
+    }
+
+    @DisplayName("Изменение зарплаты сотрудника без отложенной записи применяется сразу")
+    @Test
+    @SneakyThrows
+    void updateSalaryIsAppliedImmediately() {
+        Position position = positionRepository.save(new Position("Manager"));
+        Department finance = departmentRepository.save(new Department("Finance"));
+        Employee anna = employeeRepository.save(new Employee("Anna", 5000, position, finance));
+
+        mockMvc.perform(put("/employees/{id}/salary", anna.getId())
+                        .param("salary", "5500")
+                        .with(user("user_admin").roles("ADMIN")))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/employees/{id}/salary", 999999)
+                        .param("salary", "5500")
+                        .with(user("user_admin").roles("ADMIN")))
+                .andExpect(status().isNotFound());
+
+        EmployeeDTO updated = employeeRepository.findEmployeeDTOById(anna.getId()).orElseThrow();
+        assertEquals(5500, updated.getSalary());
+        assertEquals("Anna", updated.getName());
+        assertEquals("Manager", updated.getPositionName());
+        assertEquals("Finance", updated.getDepartmentName());
+    }
+
+    @DisplayName("Отрицательная зарплата отклоняется при любой записи")
+    @Test
+    @SneakyThrows
+    void negativeSalaryIsRejected() {
+        Position position = positionRepository.save(new Position("Manager"));
+        Department finance = departmentRepository.save(new Department("Finance"));
+        Employee anna = employeeRepository.save(new Employee("Anna", 5000, position, finance));
+
+        mockMvc.perform(post("/employees/")
+                        .with(user("user_admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                new EmployeeDTO("Oleg", 3000, "Manager", "Finance"),
+                                new EmployeeDTO("Ivan", -1, "Manager", "Finance")))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/employees/{id}", anna.getId())
+                        .with(user("user_admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new EmployeeDTO("Anna", -5000, "Manager", "Finance"))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/employees")
+                        .with(user("user_admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("patches", List.of(
+                                Map.of("id", anna.getId(), "name", "Anna Petrova"),
+                                Map.of("id", anna.getId(), "salary", -1))))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/employees/{id}/salary", anna.getId())
+                        .param("salary", "-1")
+                        .with(user("user_admin").roles("ADMIN")))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(1, employeeRepository.count());
+        EmployeeDTO unchanged = employeeRepository.findEmployeeDTOById(anna.getId()).orElseThrow();
+        assertEquals("Anna", unchanged.getName());
+        assertEquals(5000, unchanged.getSalary());
+    }
+
+    @DisplayName("Повтор добавления с тем же Idempotency-Key не создаёт дубликаты")
+    @Test
+    @SneakyThrows
+    void addEmployeeWithIdempotencyKeyIsNotDuplicated() {
+        positionRepository.save(new Position("Manager"));
+        departmentRepository.save(new Department("Sales"));
+        String jsonEmployees = objectMapper.writeValueAsString(List.of(new EmployeeDTO("Anna", 5000, "Manager", "Sales")));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/employees/")
+                            .header("Idempotency-Key", "add-anna")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(jsonEmployees)
+                            .with(user("user_admin").roles("ADMIN")))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("Команда выполнена успешно"));
+        }
+        mockMvc.perform(post("/employees/")
+                        .header("Idempotency-Key", "add-anna")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(new EmployeeDTO("Oleg", 3000, "Manager", "Sales"))))
+                        .with(user("user_admin").roles("ADMIN")))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(1, employeeRepository.count());
+    }
+
     @DisplayName("Удаление сотрудника по id успешно")
     @Test
     @SneakyThrows
@@ -235,15 +485,93 @@ public class EmployeeControllerTest {
                 .andExpect(header().string("Content-Type", "text/plain;charset=UTF-8"));
     }
 
+    @DisplayName("Повтор загрузки с тем же Idempotency-Key узнаётся по содержимому файла")
+    @Test
+    @SneakyThrows
+    void loadEmployeesFromFileWithIdempotencyKeyComparesContent() {
+        positionRepository.save(new Position("Manager"));
+        departmentRepository.save(new Department("Sales"));
+        MockMultipartFile file = new MockMultipartFile("file", "employees.json", "application/json",
+                "[{\"name\":\"Anna\",\"salary\":5000,\"positionName\":\"Manager\",\"departmentName\":\"Sales\"}]"
+                        .getBytes(StandardCharsets.UTF_8));
+        MockMultipartFile sameSizeFile = new MockMultipartFile("file", "employees.json", "application/json",
+                "[{\"name\":\"Oleg\",\"salary\":3000,\"positionName\":\"Manager\",\"departmentName\":\"Sales\"}]"
+                        .getBytes(StandardCharsets.UTF_8));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(multipart("/employees/upload")
+                            .file(file)
+                            .header("Idempotency-Key", "upload-anna")
+                            .with(user("user_admin").roles("ADMIN")))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(multipart("/employees/upload")
+                        .file(sameSizeFile)
+                        .header("Idempotency-Key", "upload-anna")
+                        .with(user("user_admin").roles("ADMIN")))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(1, employeeRepository.count());
+    }
+
+    @DisplayName("Ошибка в строке после первой порции откатывает весь импорт файла")
+    @Test
+    @SneakyThrows
+    void loadEmployeesFromFileIsAllOrNothing() {
+        positionRepository.save(new Position("Manager"));
+        departmentRepository.save(new Department("Sales"));
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 1500; i++) {
+            String positionName = i == 1200 ? "Unknown" : "Manager";
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"name\":\"Employee ").append(i).append("\",\"salary\":5000,")
+                    .append("\"positionName\":\"").append(positionName).append("\",\"departmentName\":\"Sales\"}");
+        }
+        json.append("]");
+        MockMultipartFile file = new MockMultipartFile("file", "employees.json", "application/json",
+                json.toString().getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/employees/upload")
+                        .file(file)
+                        .contentType(MediaType.MULTIPART_FORM_DATA)
+                        .with(user("user_admin").roles("ADMIN")))
+                .andExpect(status().isNotFound());
+
+        assertEquals(0, employeeRepository.count());
+    }
+
     @DisplayName("Получение сотрудников с максимальной зарплатой")
     @Test
     @SneakyThrows
     void getReportByDepartment() {
         long reportId = 1L;
-        mockMvc.perform(post("/employees/report")
+        MvcResult submitResult = mockMvc.perform(post("/employees/report")
                         .with(user("user_admin").roles("ADMIN")))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.jobId").isNotEmpty())
+                .andReturn();
+        ReportJobDTO job = objectMapper.readValue(submitResult.getResponse().getContentAsString(), ReportJobDTO.class);
+
+        MvcResult pollResult = mockMvc.perform(get("/employees/report/jobs/{jobId}", job.getJobId())
+                        .param("wait", "10")
+                        .with(user("user_test").roles("USER")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pollResult))
                 .andExpect(status().isOk())
-                .andExpect(content().string("Идентификатор (id) сохраненного отчёта: " + reportId));
+                .andExpect(jsonPath("$.jobId").value(job.getJobId()))
+                .andExpect(jsonPath("$.status").value("DONE"))
+                .andExpect(jsonPath("$.reportId").value(reportId));
+    }
+
+    @DisplayName("Статус несуществующей задачи отчёта")
+    @Test
+    @SneakyThrows
+    void getUnknownReportJob() {
+        mockMvc.perform(get("/employees/report/jobs/{jobId}", "unknown")
+                        .with(user("user_test").roles("USER")))
+                .andExpect(status().isNotFound());
     }
 
     @DisplayName("Получение полной информации о сотруднике")
@@ -327,6 +655,33 @@ public class EmployeeControllerTest {
                 .andExpect(content().json(jsonEmployees));
     }
 
+    @DisplayName("Потоковая выгрузка всех сотрудников в формате NDJSON")
+    @Test
+    @SneakyThrows
+    void streamAllEmployees() {
+        Position position = new Position("Manager");
+        Department department = new Department("Sales");
+        positionRepository.save(position);
+        departmentRepository.save(department);
+        employeeRepository.saveAll(List.of(
+                new Employee("Anna", 5000, position, department),
+                new Employee("Vladimir", 10000, position, department),
+                new Employee("Maria", 2000, position, department)));
+
+        MvcResult result = mockMvc.perform(get("/employees/all/stream")
+                        .with(user("user_test").roles("USER")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"name\":\"Anna\",\"salary\":5000,\"positionName\":\"Manager\",\"departmentName\":\"Sales\"}\n" +
+                        "{\"name\":\"Vladimir\",\"salary\":10000,\"positionName\":\"Manager\",\"departmentName\":\"Sales\"}\n" +
+                        "{\"name\":\"Maria\",\"salary\":2000,\"positionName\":\"Manager\",\"departmentName\":\"Sales\"}\n"));
+    }
+
     @DisplayName("Получение сотрудника по корректному id успешно")
     @Test
     @SneakyThrows
@@ -455,12 +810,55 @@ public class EmployeeControllerTest {
                 .andExpect(jsonPath("$").isNotEmpty());
     }
 
+    @DisplayName("Постраничное получение сотрудников по курсору")
+    @Test
+    @SneakyThrows
+    void getEmployeesAfterCursor() {
+        Position position = new Position("Manager");
+        Department department = new Department("Sales");
+        positionRepository.save(position);
+        departmentRepository.save(department);
+        employeeRepository.saveAll(List.of(
+                new Employee("Anna", 12000, position, department),
+                new Employee("Vladimir", 12000, position, department),
+                new Employee("Maria", 2000, position, department)));
+
+        String firstPage = mockMvc.perform(get("/employees/page/cursor")
+                        .with(user("user_test").roles("USER"))
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].name").value("Anna"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        mockMvc.perform(get("/employees/page/cursor")
+                        .with(user("user_test").roles("USER"))
+                        .param("cursor", cursor)
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("Maria"))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @DisplayName("Постраничное получение сотрудников по некорректному курсору не успешно")
+    @Test
+    @SneakyThrows
+    void getEmployeesAfterInvalidCursorIsNotSuccess() {
+        mockMvc.perform(get("/employees/page/cursor")
+                        .with(user("user_test").roles("USER"))
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
     @DisplayName("Получение и загрузка отчета по id")
     @Test
     @SneakyThrows
     void getReportByIdAndDownload() {
-        Report report = new Report("fileName", "content");
-        reportRepository.save(report);
+        Report report = saveLegacyReport("fileName", gzip("content"));
         Long reportId = report.getId();
 
         mockMvc.perform(get("/employees/report/{id}", reportId)
@@ -470,6 +868,174 @@ public class EmployeeControllerTest {
                 .andExpect(jsonPath("$").isNotEmpty());
     }
 
+    @DisplayName("Старые отчёты с одинаковым именем файла отдают каждый своё содержимое")
+    @Test
+    @SneakyThrows
+    void getLegacyReportsWithSameFileName() {
+        Report first = saveLegacyReport("report_18102026_1200", gzip("[{\"departmentName\":\"HR\"}]"));
+        Report second = saveLegacyReport("report_18102026_1200", gzip("[{\"departmentName\":\"Sales\"}]"));
+
+        mockMvc.perform(get("/employees/report/{id}", first.getId())
+                        .with(user("user_test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].departmentName").value("HR"));
+        mockMvc.perform(get("/employees/report/{id}", second.getId())
+                        .with(user("user_test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=report_18102026_1200"))
+                .andExpect(jsonPath("$[0].departmentName").value("Sales"));
+        mockMvc.perform(get("/employees/report/{id}", first.getId())
+                        .with(user("user_test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].departmentName").value("HR"));
+    }
+
+    @DisplayName("Скачивание последнего построенного отчёта")
+    @Test
+    @SneakyThrows
+    void getLatestReport() {
+        mockMvc.perform(get("/employees/report/latest")
+                        .with(user("user_test").roles("USER")))
+                .andExpect(status().isNotFound());
+
+        saveLegacyReport("olderReport.json", gzip("[{\"departmentName\":\"HR\"}]"));
+        saveLegacyReport("latestReport.json", gzip("[{\"departmentName\":\"Sales\"}]"));
+
+        mockMvc.perform(get("/employees/report/latest")
+                        .with(user("user_test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=latestReport.json"))
+                .andExpect(jsonPath("$[0].departmentName").value("Sales"));
+    }
+
+    @DisplayName("Выгрузка отчёта в CSV по параметру format и по заголовку Accept")
+    @Test
+    @SneakyThrows
+    void getReportByIdAsCsv() {
+        Report report = saveLegacyReport("csvReport.json", gzip(
+                "[{\"departmentName\":\"Sales\",\"employeeCount\":2,\"maxSalary\":5000,\"minSalary\":4000," +
+                        "\"averageSalary\":4500.00}]"));
+        String expected = "departmentName,employeeCount,minSalary,maxSalary,averageSalary," +
+                "salaryP50,salaryP90,salaryP99,salaryHistogram\r\nSales,2,4000,5000,4500.00,,,,\r\n";
+
+        MvcResult byFormat = mockMvc.perform(get("/employees/report/{id}", report.getId())
+                        .param("format", "csv")
+                        .with(user("user_test").roles("USER")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(byFormat))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=csvReport.csv"))
+                .andExpect(content().string(expected));
+
+        MvcResult byAccept = mockMvc.perform(get("/employees/report/{id}", report.getId())
+                        .header("Accept", "text/csv, application/json;q=0.5")
+                        .with(user("user_test").roles("USER")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(byAccept))
+                .andExpect(status().isOk())
+                .andExpect(content().string(expected));
+
+        MvcResult jsonPreferred = mockMvc.perform(get("/employees/report/{id}", report.getId())
+                        .header("Accept", "application/json, text/csv;q=0.5")
+                        .with(user("user_test").roles("USER")))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(jsonPreferred))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].departmentName").value("Sales"));
+
+        mockMvc.perform(get("/employees/report/{id}", report.getId())
+                        .param("format", "json")
+                        .header("Accept-Encoding", "gzip")
+                        .with(user("user_test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"));
+
+        mockMvc.perform(get("/employees/report/{id}", Long.MAX_VALUE)
+                        .param("format", "csv")
+                        .with(user("user_test").roles("USER")))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/employees/report/{id}", report.getId())
+                        .param("format", "xlsx")
+                        .with(user("user_test").roles("USER")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Скачивание части отчёта по заголовку Range")
+    @Test
+    @SneakyThrows
+    void getReportByIdAndDownloadRange() {
+        Report report = saveLegacyReport("rangeReport.json", gzip("[{\"departmentName\":\"Sales\"}]"));
+        Long reportId = report.getId();
+
+        mockMvc.perform(get("/employees/report/{id}", reportId)
+                        .with(user("user_test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().longValue("Content-Length", 28));
+
+        mockMvc.perform(get("/employees/report/{id}", reportId)
+                        .header("Range", "bytes=3-16")
+                        .with(user("user_test").roles("USER")))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 3-16/28"))
+                .andExpect(content().string("departmentName"));
+    }
+
+    @DisplayName("Скачивание сжатого отчёта клиентом, который принимает gzip")
+    @Test
+    @SneakyThrows
+    void getReportByIdAndDownloadGzip() {
+        byte[] compressedContent = gzip("[{\"departmentName\":\"Sales\"}]");
+        Report report = saveLegacyReport("gzipReport.json", compressedContent);
+        Long reportId = report.getId();
+
+        mockMvc.perform(get("/employees/report/{id}", reportId)
+                        .header("Accept-Encoding", "br, gzip;q=0.8")
+                        .with(user("user_test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(content().bytes(compressedContent));
+
+        mockMvc.perform(get("/employees/report/{id}", reportId)
+                        .header("Accept-Encoding", "gzip;q=0, *")
+                        .with(user("user_test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string("[{\"departmentName\":\"Sales\"}]"));
+    }
+
+    @DisplayName("Список отчётов без загрузки содержимого")
+    @Test
+    @SneakyThrows
+    void getReports() {
+        Report first = saveLegacyReport("first.json", gzip("[]"));
+        Report second = reportRepository.save(new Report("second.json"));
+
+        mockMvc.perform(get("/employees/reports")
+                        .param("size", "1")
+                        .with(user("user_test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(second.getId()))
+                .andExpect(jsonPath("$.content[0].fileName").value("second.json"))
+                .andExpect(jsonPath("$.content[0].createdAt").isNotEmpty())
+                .andExpect(jsonPath("$.content[0].compressedContent").doesNotExist());
+
+        mockMvc.perform(get("/employees/reports")
+                        .param("page", "1")
+                        .param("size", "1")
+                        .with(user("user_test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(first.getId()));
+    }
+
     private EmployeeDTO convertEmployeeToDto(Employee employee) {
         EmployeeDTO employeeDTO = new EmployeeDTO();
         employeeDTO.setName(employee.getName());
@@ -485,5 +1051,19 @@ public class EmployeeControllerTest {
         return positionDTO;
     }
 
-}
 
+    private Report saveLegacyReport(String fileName, byte[] compressedContent) {
+        Report report = reportRepository.save(new Report(fileName));
+        reportContentRepository.save(new ReportContent(report.getId(), compressedContent));
+        return report;
+    }
+
+    @SneakyThrows
+    private static byte[] gzip(String content) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream outputStream = new GZIPOutputStream(compressed)) {
+            outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,142 @@
+package ru.skypro.lessons.springboot.weblibrary.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeDTO;
+import ru.skypro.lessons.springboot.weblibrary.model.Department;
+import ru.skypro.lessons.springboot.weblibrary.model.Employee;
+import ru.skypro.lessons.springboot.weblibrary.model.Position;
+import ru.skypro.lessons.springboot.weblibrary.repository.DepartmentRepository;
+import ru.skypro.lessons.springboot.weblibrary.repository.EmployeeRepository;
+import ru.skypro.lessons.springboot.weblibrary.repository.PositionRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+public class EmployeeQueryCountTest {
+
+    private static final int EMPLOYEE_COUNT = 40;
+    private static final int MAX_LIST_STATEMENTS = 2;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    PositionRepository positionRepository;
+    @Autowired
+    DepartmentRepository departmentRepository;
+    @Autowired
+    EmployeeRepository employeeRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        List<Position> positions = positionRepository.saveAll(List.of(
+                new Position("Manager"), new Position("Boss"), new Position("Developer")));
+        List<Department> departments = departmentRepository.saveAll(List.of(
+                new Department("Sales"), new Department("Finance"), new Department("IT"), new Department("HR")));
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEE_COUNT; i++) {
+            employees.add(new Employee("Employee" + i, 1000 + i * 100,
+                    positions.get(i % positions.size()), departments.get(i % departments.size())));
+        }
+        employeeRepository.saveAll(employees);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void resetDatabase() {
+        employeeRepository.deleteAll();
+        positionRepository.deleteAll();
+        departmentRepository.deleteAll();
+    }
+
+    @DisplayName("Списочные запросы выполняют фиксированное число SQL-операторов")
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/employees/all",
+            "/employees/position",
+            "/employees/position?position=Manager",
+            "/employees/salary/higherThan?compareSalary=1500",
+            "/employees/salary/highest",
+            "/employees/page?page=1",
+            "/employees/page/cursor?size=10"
+    })
+    @SneakyThrows
+    void listEndpointsDoNotLoadAssociationsPerRow(String url) {
+        mockMvc.perform(get(url)
+                        .with(user("user_test").roles("USER")))
+                .andExpect(status().isOk());
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= MAX_LIST_STATEMENTS,
+                url + " выполнил " + statements + " SQL-операторов");
+    }
+
+    @DisplayName("Карточка сотрудника читается одним SQL-оператором")
+    @ParameterizedTest
+    @ValueSource(strings = {"/employees/{id}", "/employees/{id}/fullInfo"})
+    @SneakyThrows
+    void singleEmployeeEndpointsUseOneStatement(String url) {
+        Long id = employeeRepository.save(new Employee("Single", 1000,
+                positionRepository.findByName("Manager").orElseThrow(),
+                departmentRepository.findByName("Sales").orElseThrow())).getId();
+        statistics.clear();
+
+        mockMvc.perform(get(url, id)
+                        .with(user("user_test").roles("USER")))
+                .andExpect(status().isOk());
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 1, url + " выполнил " + statements + " SQL-операторов");
+    }
+
+    @DisplayName("Массовое добавление сотрудников уходит в БД пакетами")
+    @Test
+    @SneakyThrows
+    void addEmployeesIsBatched() {
+        List<EmployeeDTO> employeeDTOs = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            employeeDTOs.add(new EmployeeDTO("New" + i, 2000 + i, "Developer", "IT"));
+        }
+        String jsonEmployees = new ObjectMapper().writeValueAsString(employeeDTOs);
+
+        mockMvc.perform(post("/employees/")
+                        .with(user("user_admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonEmployees))
+                .andExpect(status().isOk());
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements < 15, "Добавление 120 сотрудников выполнило " + statements + " SQL-операторов");
+    }
+}
@@ -0,0 +1,91 @@
+package ru.skypro.lessons.springboot.weblibrary.report;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportDTO;
+import ru.skypro.lessons.springboot.weblibrary.repository.EmployeeRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class PartitionedReportEngineTest {
+
+    private static final String[] DEPARTMENTS = {"Finance", "HR", "IT", "Sales"};
+
+    private final EmployeeRepository employeeRepositoryMock = mock(EmployeeRepository.class);
+    private PartitionedReportEngine engine;
+
+    @AfterEach
+    public void shutdown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    @DisplayName("Параллельный отчёт по частям диапазона id совпадает с последовательным проходом")
+    @Test
+    public void testPartitionedReportEqualsSerialReport() {
+        Random random = new Random(11);
+        List<Object[]> rows = new ArrayList<>();
+        Map<String, DepartmentSalaryAggregate> expected = new TreeMap<>();
+        for (long id = 5; id < 10_005; id += 1 + random.nextInt(3)) {
+            String department = DEPARTMENTS[random.nextInt(DEPARTMENTS.length)];
+            int salary = 20_000 + random.nextInt(250_000);
+            rows.add(new Object[]{id, salary, department});
+            expected.computeIfAbsent(department, name -> new DepartmentSalaryAggregate()).add(salary);
+        }
+        long maxId = (Long) rows.get(rows.size() - 1)[0];
+        when(employeeRepositoryMock.findIdRange()).thenReturn(List.<Object[]>of(new Object[]{5L, maxId}));
+        when(employeeRepositoryMock.streamSalariesAndDepartmentsByIdRange(anyLong(), anyLong())).thenAnswer(invocation -> {
+            long fromId = invocation.getArgument(0);
+            long toId = invocation.getArgument(1);
+            return rows.stream()
+                    .filter(row -> (Long) row[0] >= fromId && (Long) row[0] <= toId)
+                    .map(row -> new Object[]{row[1], row[2]});
+        });
+        engine = new PartitionedReportEngine(true, 3, employeeRepositoryMock, mock(PlatformTransactionManager.class));
+
+        List<ReportDTO> report = engine.computeReport();
+
+        verify(employeeRepositoryMock, times(12)).streamSalariesAndDepartmentsByIdRange(anyLong(), anyLong());
+        assertEquals(List.of(DEPARTMENTS), report.stream().map(ReportDTO::getDepartmentName).toList());
+        for (ReportDTO actual : report) {
+            ReportDTO serial = expected.get(actual.getDepartmentName()).toReportDTO(actual.getDepartmentName());
+            assertEquals(serial.toString(), actual.toString());
+            assertEquals(serial.getSalaryHistogram().toString(), actual.getSalaryHistogram().toString());
+        }
+    }
+
+    @DisplayName("Части покрывают диапазон id без пропусков и пересечений")
+    @Test
+    public void testSplitCoversRange() {
+        List<long[]> partitions = PartitionedReportEngine.split(3, 100, 16);
+
+        assertTrue(partitions.size() <= 16);
+        assertEquals(3, partitions.get(0)[0]);
+        assertEquals(100, partitions.get(partitions.size() - 1)[1]);
+        for (int i = 1; i < partitions.size(); i++) {
+            assertEquals(partitions.get(i - 1)[1] + 1, partitions.get(i)[0]);
+        }
+        assertEquals(1, PartitionedReportEngine.split(7, 7, 16).size());
+    }
+
+    @DisplayName("Пустая таблица сотрудников даёт пустой отчёт")
+    @Test
+    public void testEmptyTable() {
+        when(employeeRepositoryMock.findIdRange()).thenReturn(List.<Object[]>of(new Object[]{null, null}));
+        engine = new PartitionedReportEngine(true, 2, employeeRepositoryMock, mock(PlatformTransactionManager.class));
+
+        assertTrue(engine.computeReport().isEmpty());
+        verify(employeeRepositoryMock, never()).streamSalariesAndDepartmentsByIdRange(anyLong(), anyLong());
+    }
+}
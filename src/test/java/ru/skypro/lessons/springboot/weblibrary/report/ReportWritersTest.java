@@ -0,0 +1,146 @@
+package ru.skypro.lessons.springboot.weblibrary.report;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.SalaryBucketDTO;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportWritersTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ReportWriters reportWriters = new ReportWriters(List.of(
+            new JsonReportWriter(objectMapper), new CsvReportWriter(), new ColumnarReportWriter()));
+
+    @DisplayName("Формат выбирается по параметру, затем по Accept с учётом q, иначе JSON")
+    @Test
+    public void testResolve() {
+        assertEquals("csv", reportWriters.resolve("CSV", "application/json").getFormat());
+        assertEquals("csv", reportWriters.resolve(null, "text/csv").getFormat());
+        assertEquals("columnar", reportWriters.resolve(null,
+                "text/csv;q=0.5, application/vnd.weblibrary.report-columnar").getFormat());
+        assertEquals("json", reportWriters.resolve(null, "text/*;q=0, */*").getFormat());
+        assertEquals("json", reportWriters.resolve(null, "application/xml").getFormat());
+        assertEquals("json", reportWriters.resolve(null, null).getFormat());
+        assertThrows(IllegalArgumentException.class, () -> reportWriters.resolve("xlsx", null));
+    }
+
+    @DisplayName("CSV экранирует название отдела и пишет гистограмму одной колонкой")
+    @Test
+    public void testCsvWriter() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        new CsvReportWriter().write(List.of(createReport("R&D, \"Lab\""), new ReportDTO()), outputStream);
+
+        assertEquals(CsvReportWriter.HEADER + "\r\n" +
+                        "\"R&D, \"\"Lab\"\"\",2,4000,5000,4500.00,4000,5000,5000,4000-4499:1;4500-5000:1\r\n" +
+                        ",null,0,0,,,,,\r\n",
+                outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @DisplayName("Колоночный формат читается обратно без потерь")
+    @Test
+    public void testColumnarWriterRoundTrip() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ReportDTO report = createReport("Finance");
+
+        new ColumnarReportWriter().write(List.of(report), outputStream);
+
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+        assertEquals(ColumnarReportWriter.MAGIC, input.readInt());
+        assertEquals(1, input.readInt());
+        assertEquals("Finance", input.readUTF());
+        assertEquals(2L, input.readLong());
+        assertEquals(4000, input.readInt());
+        assertEquals(5000, input.readInt());
+        long unscaled = input.readLong();
+        assertEquals(report.getAverageSalary(), BigDecimal.valueOf(unscaled, input.readByte()));
+        assertEquals(4000, input.readInt());
+        assertEquals(5000, input.readInt());
+        assertEquals(5000, input.readInt());
+        assertEquals(2, input.readInt());
+        assertEquals(4000, input.readLong());
+        assertEquals(4499, input.readLong());
+        assertEquals(1, input.readLong());
+        input.skipNBytes(3 * Long.BYTES);
+        assertEquals(0, input.readInt());
+        assertEquals(-1, input.read());
+        assertTrue(outputStream.size() < objectMapper.writeValueAsBytes(List.of(report)).length);
+    }
+
+    @DisplayName("Колоночный формат собирает колонки за один проход по строкам")
+    @Test
+    public void testColumnarWriterReadsRowsOnce() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        int[] passes = new int[1];
+
+        new ColumnarReportWriter().write(consumer -> {
+            passes[0]++;
+            consumer.accept(createReport("Finance"));
+            consumer.accept(createReport("Sales"));
+        }, outputStream);
+
+        assertEquals(1, passes[0]);
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+        assertEquals(ColumnarReportWriter.MAGIC, input.readInt());
+        assertEquals(2, input.readInt());
+        assertEquals("Finance", input.readUTF());
+        assertEquals("Sales", input.readUTF());
+        assertEquals(2L, input.readLong());
+        assertEquals(2L, input.readLong());
+        assertEquals(4000, input.readInt());
+        assertEquals(4000, input.readInt());
+    }
+
+    @DisplayName("Колоночный формат пишет строки блоками ограниченного размера")
+    @Test
+    public void testColumnarWriterWritesBlocks() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        int rowCount = ColumnarReportWriter.BLOCK_SIZE + 1;
+
+        new ColumnarReportWriter().write(consumer -> {
+            for (int i = 0; i < rowCount; i++) {
+                consumer.accept(createReport("Department " + i));
+            }
+        }, outputStream);
+
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+        assertEquals(ColumnarReportWriter.MAGIC, input.readInt());
+        assertEquals(ColumnarReportWriter.BLOCK_SIZE, input.readInt());
+        for (int i = 0; i < ColumnarReportWriter.BLOCK_SIZE; i++) {
+            assertEquals("Department " + i, input.readUTF());
+        }
+        int blockTail = ColumnarReportWriter.BLOCK_SIZE * (Long.BYTES + 2 * Integer.BYTES + Long.BYTES + 1
+                + 4 * Integer.BYTES + 2 * 3 * Long.BYTES);
+        input.skipNBytes(blockTail);
+        assertEquals(1, input.readInt());
+        assertEquals("Department " + ColumnarReportWriter.BLOCK_SIZE, input.readUTF());
+        input.skipNBytes(blockTail / ColumnarReportWriter.BLOCK_SIZE);
+        assertEquals(0, input.readInt());
+        assertEquals(-1, input.read());
+    }
+
+    private static ReportDTO createReport(String departmentName) {
+        ReportDTO reportDTO = new ReportDTO();
+        reportDTO.setDepartmentName(departmentName);
+        reportDTO.setEmployeeCount(2L);
+        reportDTO.setMinSalary(4000);
+        reportDTO.setMaxSalary(5000);
+        reportDTO.setAverageSalary(new BigDecimal("4500.00"));
+        reportDTO.setSalaryP50(4000);
+        reportDTO.setSalaryP90(5000);
+        reportDTO.setSalaryP99(5000);
+        reportDTO.setSalaryHistogram(List.of(new SalaryBucketDTO(4000, 4499, 1), new SalaryBucketDTO(4500, 5000, 1)));
+        return reportDTO;
+    }
+}
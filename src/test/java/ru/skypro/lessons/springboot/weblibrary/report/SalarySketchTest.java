@@ -0,0 +1,149 @@
+package ru.skypro.lessons.springboot.weblibrary.report;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.SalaryBucketDTO;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalarySketchTest {
+
+    private static final double MAX_RELATIVE_ERROR = 1.0 / (1 << SalarySketch.SUB_BUCKET_BITS);
+
+    @DisplayName("Перцентили гистограммы отличаются от точных не более чем на 1/128")
+    @Test
+    public void testPercentilesMatchExactValuesWithinRelativeError() {
+        Random random = new Random(42);
+        int[] salaries = new int[100_000];
+        SalarySketch sketch = new SalarySketch();
+        for (int i = 0; i < salaries.length; i++) {
+            salaries[i] = (int) Math.min(Integer.MAX_VALUE - 1, Math.exp(10 + random.nextGaussian()));
+            sketch.record(salaries[i]);
+        }
+        Arrays.sort(salaries);
+
+        for (double percentile : new double[]{1, 25, 50, 90, 99, 99.9}) {
+            int exact = salaries[(int) Math.ceil(percentile / 100 * salaries.length) - 1];
+            int estimated = sketch.getValueAtPercentile(percentile);
+            assertTrue(Math.abs(estimated - exact) <= exact * MAX_RELATIVE_ERROR,
+                    "p" + percentile + ": " + estimated + " vs " + exact);
+        }
+        assertEquals(salaries[0], sketch.getMinValue());
+        assertEquals(salaries[salaries.length - 1], sketch.getMaxValue());
+        assertEquals(salaries.length, sketch.getTotalCount());
+    }
+
+    @DisplayName("Корзины гистограммы покрывают весь диапазон int без пропусков")
+    @Test
+    public void testBucketBoundsAreContiguous() {
+        for (int value : new int[]{0, 1, 255, 256, 257, 511, 512, 100_000, Integer.MAX_VALUE}) {
+            int index = SalarySketch.indexOf(value);
+            assertTrue(SalarySketch.lowerBoundOf(index) <= value && value <= SalarySketch.upperBoundOf(index),
+                    "value " + value);
+        }
+        int lastIndex = SalarySketch.indexOf(Integer.MAX_VALUE);
+        for (int index = 1; index <= lastIndex; index++) {
+            assertEquals(SalarySketch.upperBoundOf(index - 1) + 1, SalarySketch.lowerBoundOf(index));
+        }
+    }
+
+    @DisplayName("Слияние частичных гистограмм равно гистограмме по всем данным")
+    @Test
+    public void testMergeEqualsSinglePass() {
+        Random random = new Random(7);
+        SalarySketch whole = new SalarySketch();
+        SalarySketch left = new SalarySketch();
+        SalarySketch right = new SalarySketch();
+        for (int i = 0; i < 10_000; i++) {
+            int salary = 1000 + random.nextInt(200_000);
+            whole.record(salary);
+            (i % 2 == 0 ? left : right).record(salary);
+        }
+
+        left.merge(right);
+
+        for (double percentile : new double[]{0, 50, 90, 99, 100}) {
+            assertEquals(whole.getValueAtPercentile(percentile), left.getValueAtPercentile(percentile));
+        }
+        assertArrayEquals(whole.getEqualWidthBins(10), left.getEqualWidthBins(10));
+    }
+
+    @DisplayName("Агрегат после удалений совпадает с агрегатом по оставшимся зарплатам")
+    @Test
+    public void testRemoveEqualsRebuiltAggregate() {
+        Random random = new Random(11);
+        int[] salaries = new int[5_000];
+        DepartmentSalaryAggregate running = new DepartmentSalaryAggregate();
+        for (int i = 0; i < salaries.length; i++) {
+            salaries[i] = 1000 + random.nextInt(100_000);
+            running.add(salaries[i]);
+        }
+        int[] sorted = salaries.clone();
+        Arrays.sort(sorted);
+        int removedCount = salaries.length / 2;
+        // Удаляются самые маленькие зарплаты, чтобы MIN каждый раз восстанавливался.
+        for (int i = 0; i < removedCount; i++) {
+            running.remove(sorted[i], sorted[i + 1], sorted[sorted.length - 1]);
+        }
+
+        DepartmentSalaryAggregate rebuilt = new DepartmentSalaryAggregate();
+        for (int i = removedCount; i < sorted.length; i++) {
+            rebuilt.add(sorted[i]);
+        }
+        ReportDTO expected = rebuilt.toReportDTO("IT");
+        ReportDTO actual = running.toReportDTO("IT");
+        assertEquals(expected.getEmployeeCount(), actual.getEmployeeCount());
+        assertEquals(expected.getMinSalary(), actual.getMinSalary());
+        assertEquals(expected.getMaxSalary(), actual.getMaxSalary());
+        assertEquals(expected.getAverageSalary(), actual.getAverageSalary());
+        assertEquals(expected.getSalaryP50(), actual.getSalaryP50());
+        assertEquals(expected.getSalaryP99(), actual.getSalaryP99());
+        assertEquals(expected.getSalaryHistogram().size(), actual.getSalaryHistogram().size());
+        for (int i = 0; i < expected.getSalaryHistogram().size(); i++) {
+            assertEquals(expected.getSalaryHistogram().get(i).getEmployeeCount(),
+                    actual.getSalaryHistogram().get(i).getEmployeeCount());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new SalarySketch().remove(1000, 0, 0));
+    }
+
+    @DisplayName("Гистограмма отчёта совпадает с точной с точностью до значений у границ интервалов")
+    @Test
+    public void testReportHistogramMatchesExactCounts() {
+        Random random = new Random(3);
+        int[] salaries = random.ints(20_000, 20_000, 300_000).toArray();
+        DepartmentSalaryAggregate aggregate = new DepartmentSalaryAggregate();
+        Arrays.stream(salaries).forEach(aggregate::add);
+
+        ReportDTO report = aggregate.toReportDTO("IT");
+
+        List<SalaryBucketDTO> histogram = report.getSalaryHistogram();
+        assertEquals(DepartmentSalaryAggregate.HISTOGRAM_BINS, histogram.size());
+        assertEquals(salaries.length, histogram.stream().mapToLong(SalaryBucketDTO::getEmployeeCount).sum());
+        for (SalaryBucketDTO bucket : histogram) {
+            long exact = Arrays.stream(salaries)
+                    .filter(salary -> salary >= bucket.getFromSalary() && salary <= bucket.getToSalary())
+                    .count();
+            long nearEdges = Arrays.stream(salaries)
+                    .filter(salary -> isNear(salary, bucket.getFromSalary()) || isNear(salary, bucket.getToSalary()))
+                    .count();
+            assertTrue(Math.abs(bucket.getEmployeeCount() - exact) <= nearEdges,
+                    bucket + " vs " + exact);
+        }
+        assertEquals(Arrays.stream(salaries).min().getAsInt(), report.getMinSalary());
+        assertEquals(Arrays.stream(salaries).max().getAsInt(), report.getMaxSalary());
+        assertEquals(0, BigDecimal.valueOf(Arrays.stream(salaries).asLongStream().sum())
+                .divide(BigDecimal.valueOf(salaries.length), 2, RoundingMode.HALF_UP)
+                .compareTo(report.getAverageSalary()));
+    }
+
+    private static boolean isNear(int salary, long edge) {
+        return Math.abs(salary - edge) <= edge * MAX_RELATIVE_ERROR + 1;
+    }
+}
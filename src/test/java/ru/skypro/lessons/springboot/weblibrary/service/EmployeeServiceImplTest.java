@@ -2,33 +2,73 @@ package ru.skypro.lessons.springboot.weblibrary.service;
 
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+import ru.skypro.lessons.springboot.weblibrary.cache.DepartmentStatsStore;
+import ru.skypro.lessons.springboot.weblibrary.cache.DictionaryCache;
+import ru.skypro.lessons.springboot.weblibrary.cache.EmployeeCache;
+import ru.skypro.lessons.springboot.weblibrary.cache.EmployeeDataVersion;
+import ru.skypro.lessons.springboot.weblibrary.cache.SalaryIndex;
+import ru.skypro.lessons.springboot.weblibrary.cache.SalaryWriteBehindBuffer;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeBulkPatchDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeBulkPatchResultDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeCursorPageDTO;
 import ru.skypro.lessons.springboot.weblibrary.dto.EmployeeDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeePatchDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeePatchResultDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.EmployeePatchStatus;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.SalaryRaiseDTO;
 import ru.skypro.lessons.springboot.weblibrary.model.Department;
 import ru.skypro.lessons.springboot.weblibrary.model.Employee;
 import ru.skypro.lessons.springboot.weblibrary.model.Position;
 import ru.skypro.lessons.springboot.weblibrary.model.Report;
+import ru.skypro.lessons.springboot.weblibrary.report.PartitionedReportEngine;
 import ru.skypro.lessons.springboot.weblibrary.repository.DepartmentRepository;
 import ru.skypro.lessons.springboot.weblibrary.repository.EmployeeRepository;
 import ru.skypro.lessons.springboot.weblibrary.repository.PositionRepository;
+import ru.skypro.lessons.springboot.weblibrary.repository.ReportContentRepository;
 import ru.skypro.lessons.springboot.weblibrary.repository.ReportRepository;
-
+import ru.skypro.lessons.springboot.weblibrary.storage.ReportStorage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Enumeration;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -45,7 +85,15 @@ class EmployeeServiceImplTest {
     @Mock
     private ReportRepository reportRepositoryMock;
     @Mock
+    private ReportContentRepository reportContentRepositoryMock;
+    @Mock
     private ObjectMapper objectMapperMock;
+    @Mock
+    private SalaryWriteBehindBuffer salaryWriteBehindBufferMock;
+    @TempDir
+    private Path reportDirectory;
+    private final EmployeeDataVersion employeeDataVersion = new EmployeeDataVersion();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
     private EmployeeService employeeService;
     private Position position;
     private Department department;
@@ -53,16 +101,35 @@ class EmployeeServiceImplTest {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
-        employeeService = new EmployeeServiceImpl(
-                employeeRepositoryMock, positionRepositoryMock, departmentRepositoryMock,
-                reportRepositoryMock, objectMapperMock
-        );
+        employeeService = createEmployeeService(objectMapperMock, 1000);
         position = new Position(1L, "Boss");
         position.setName("Manager");
-        department = new Department("Finance");
+        department = new Department(1L, "Finance");
         department.setName("Finance");
     }
 
+    private EmployeeService createEmployeeService(ObjectMapper objectMapper, int importChunkSize) {
+        return createEmployeeService(objectMapper, importChunkSize,
+                new SalaryIndex(false, employeeRepositoryMock, mock(PlatformTransactionManager.class)));
+    }
+
+    private EmployeeService createEmployeeService(ObjectMapper objectMapper, int importChunkSize,
+                                                  SalaryIndex salaryIndex) {
+        return new EmployeeServiceImpl(
+                employeeRepositoryMock, reportRepositoryMock, reportContentRepositoryMock,
+                new ReportStorage(reportDirectory), objectMapper,
+                new DictionaryCache(positionRepositoryMock, departmentRepositoryMock),
+                new EmployeeCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry()),
+                salaryIndex,
+                new DepartmentStatsStore(false, employeeRepositoryMock, mock(PlatformTransactionManager.class)),
+                employeeDataVersion,
+                salaryWriteBehindBufferMock,
+                new PartitionedReportEngine(false, 1, employeeRepositoryMock, mock(PlatformTransactionManager.class)),
+                meterRegistry,
+                importChunkSize
+        );
+    }
+
     private List<Employee> createTestEmployees() {
         Employee employee1 = new Employee(1L, "Anna", 5000, position, department);
         Employee employee2 = new Employee(2L, "Vladimir", 4000, position, department);
@@ -75,11 +142,11 @@ class EmployeeServiceImplTest {
 
         List<Employee> employees = createTestEmployees();
 
-        when(employeeRepositoryMock.findAll()).thenReturn(employees);
+        when(employeeRepositoryMock.findAllEmployeeDTOs()).thenReturn(toDtos(employees));
 
         List<EmployeeDTO> result = employeeService.getAllEmployees();
 
-        verify(employeeRepositoryMock, times(1)).findAll();
+        verify(employeeRepositoryMock, times(1)).findAllEmployeeDTOs();
 
         for (int i = 0; i < employees.size(); i++) {
             Employee expectedEmployee = employees.get(i);
@@ -92,15 +159,31 @@ class EmployeeServiceImplTest {
         }
     }
 
+    @DisplayName("Тест потоковой выгрузки сотрудников в NDJSON")
+    @Test
+    public void testWriteAllEmployees() throws IOException {
+        EmployeeService streamingService = createEmployeeService(new ObjectMapper(), 1000);
+        when(employeeRepositoryMock.streamAllEmployeeDTOs()).thenReturn(toDtos(createTestEmployees()).stream());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        streamingService.writeAllEmployees(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"name\":\"Anna\",\"salary\":5000,\"positionName\":\"Manager\",\"departmentName\":\"Finance\"}",
+                lines[0]);
+        assertTrue(outputStream.toString(StandardCharsets.UTF_8).endsWith("\n"));
+    }
+
     @DisplayName("Тест для пустой БД")
     @Test
     public void testGetAllEmployeesWhenNoData() {
 
-        when(employeeRepositoryMock.findAll()).thenReturn(new ArrayList<>());
+        when(employeeRepositoryMock.findAllEmployeeDTOs()).thenReturn(new ArrayList<>());
 
         List<EmployeeDTO> result = employeeService.getAllEmployees();
 
-        verify(employeeRepositoryMock, times(1)).findAll();
+        verify(employeeRepositoryMock, times(1)).findAllEmployeeDTOs();
 
         assertEquals(0, result.size());
     }
@@ -109,11 +192,11 @@ class EmployeeServiceImplTest {
     @Test
     public void testGetAllEmployeesWhenDatabaseError() {
 
-        when(employeeRepositoryMock.findAll()).thenThrow(RuntimeException.class);
+        when(employeeRepositoryMock.findAllEmployeeDTOs()).thenThrow(RuntimeException.class);
 
         assertThrows(RuntimeException.class, employeeService::getAllEmployees);
 
-        verify(employeeRepositoryMock, times(1)).findAll();
+        verify(employeeRepositoryMock, times(1)).findAllEmployeeDTOs();
     }
 
     @DisplayName("Тест для метода получения сотрудника по id")
@@ -124,11 +207,11 @@ class EmployeeServiceImplTest {
 
         Employee employee = createTestEmployees().get(0);
 
-        when(employeeRepositoryMock.findById(id)).thenReturn(Optional.of(employee));
+        when(employeeRepositoryMock.findEmployeeDTOById(id)).thenReturn(Optional.of(toDto(employee)));
 
         EmployeeDTO result = employeeService.getEmployeeById(id);
 
-        verify(employeeRepositoryMock, times(1)).findById(id);
+        verify(employeeRepositoryMock, times(1)).findEmployeeDTOById(id);
 
         assertEquals(employee.getName(), result.getName());
         assertEquals(employee.getSalary(), result.getSalary());
@@ -136,17 +219,48 @@ class EmployeeServiceImplTest {
         assertEquals(employee.getPosition().getName(), result.getPositionName());
     }
 
+    @DisplayName("Тест повторного получения сотрудника по id из кэша")
+    @Test
+    public void testGetEmployeeByIdIsCached() {
+        Long id = 1L;
+        Employee employee = createTestEmployees().get(0);
+        when(employeeRepositoryMock.findEmployeeDTOById(id)).thenReturn(Optional.of(toDto(employee)));
+
+        employeeService.getEmployeeById(id);
+        EmployeeDTO result = employeeService.getEmployeeFullInfo(id);
+
+        assertEquals(employee.getName(), result.getName());
+        verify(employeeRepositoryMock, times(1)).findEmployeeDTOById(id);
+    }
+
+    @DisplayName("Тест сброса кэша сотрудника после удаления")
+    @Test
+    public void testDeleteEmployeeByIdInvalidatesCache() {
+        Long id = 1L;
+        Employee employee = createTestEmployees().get(0);
+        when(employeeRepositoryMock.findEmployeeDTOById(id))
+                .thenReturn(Optional.of(toDto(employee)))
+                .thenReturn(Optional.empty());
+        when(employeeRepositoryMock.deleteEmployeeById(id)).thenReturn(1);
+
+        employeeService.getEmployeeById(id);
+        employeeService.deleteEmployeeById(id);
+
+        assertThrows(RuntimeException.class, () -> employeeService.getEmployeeById(id));
+        verify(employeeRepositoryMock, times(2)).findEmployeeDTOById(id);
+    }
+
     @DisplayName("Тест для проверки несуществующего id")
     @Test
     public void testGetEmployeeByIdWhenNotFound() {
 
         Long id = 1L;
 
-        when(employeeRepositoryMock.findById(id)).thenReturn(Optional.empty());
+        when(employeeRepositoryMock.findEmployeeDTOById(id)).thenReturn(Optional.empty());
 
         assertThrows(RuntimeException.class, () -> employeeService.getEmployeeById(id));
 
-        verify(employeeRepositoryMock, times(1)).findById(id);
+        verify(employeeRepositoryMock, times(1)).findEmployeeDTOById(id);
     }
 
     @DisplayName("Тест для метода получения сотрудника по должности")
@@ -166,17 +280,17 @@ class EmployeeServiceImplTest {
         List<Employee> employees = Arrays.asList(employee1, employee2);
 
         if (position != null) {
-            when(employeeRepositoryMock.findByPositionName(position)).thenReturn(employees);
+            when(employeeRepositoryMock.findEmployeeDTOsByPositionName(position)).thenReturn(toDtos(employees));
         } else {
-            when(employeeRepositoryMock.findAll()).thenReturn(employees);
+            when(employeeRepositoryMock.findAllEmployeeDTOs()).thenReturn(toDtos(employees));
         }
 
         List<EmployeeDTO> result = employeeService.getEmployeesByPosition(position);
 
         if (position != null) {
-            verify(employeeRepositoryMock, times(1)).findByPositionName(position);
+            verify(employeeRepositoryMock, times(1)).findEmployeeDTOsByPositionName(position);
         } else {
-            verify(employeeRepositoryMock, times(1)).findAll();
+            verify(employeeRepositoryMock, times(1)).findAllEmployeeDTOs();
         }
 
         for (int i = 0; i < employees.size(); i++) {
@@ -199,14 +313,12 @@ class EmployeeServiceImplTest {
                 new EmployeeDTO("Vladimir", 4000, "Manager", "Sales")
         );
         Position directorPosition = new Position(1L, "Boss");
-        Position managerPosition = new Position(1L, "Boss");
-        Department financeDepartment = new Department("Finance");
-        Department salesDepartment = new Department("Sales");
+        Position managerPosition = new Position(2L, "Manager");
+        Department financeDepartment = new Department(1L, "Finance");
+        Department salesDepartment = new Department(2L, "Sales");
 
-        when(positionRepositoryMock.findByName("Boss")).thenReturn(Optional.of(directorPosition));
-        when(positionRepositoryMock.findByName("Manager")).thenReturn(Optional.of(managerPosition));
-        when(departmentRepositoryMock.findByName("Finance")).thenReturn(Optional.of(financeDepartment));
-        when(departmentRepositoryMock.findByName("Sales")).thenReturn(Optional.of(salesDepartment));
+        when(positionRepositoryMock.findAll()).thenReturn(List.of(directorPosition, managerPosition));
+        when(departmentRepositoryMock.findAll()).thenReturn(List.of(financeDepartment, salesDepartment));
 
         final List[] savedEmployees = new List[1];
         doAnswer(invocation -> {
@@ -227,9 +339,9 @@ class EmployeeServiceImplTest {
 
         Employee employee =createTestEmployees().get(0);
 
-        Optional<Employee> employeeOptional = Optional.of(employee);
+        Optional<EmployeeDTO> employeeOptional = Optional.of(toDto(employee));
 
-        when(employeeRepositoryMock.findEmployeeWithPosition(id)).thenReturn(employeeOptional);
+        when(employeeRepositoryMock.findEmployeeDTOById(id)).thenReturn(employeeOptional);
 
         EmployeeDTO result = employeeService.getEmployeeFullInfo(id);
 
@@ -246,28 +358,61 @@ class EmployeeServiceImplTest {
 
         Long id = 1L;
 
-        EmployeeDTO employeeDTO = new EmployeeDTO("Anna", 5000, "Boss", "Finance");
-
-        Employee existingEmployee = new Employee(id, "Vladimir", 4000, new Position(1L, "Boss"), new Department("Sales"));
+        EmployeeDTO employeeDTO = new EmployeeDTO("Anna", 5000, "Boss", "Finance", 3L);
 
         Position directorPosition = new Position(1L, "Boss");
 
-        Department financeDepartment = new Department("Finance");
+        Department financeDepartment = new Department(2L, "Finance");
 
-        when(employeeRepositoryMock.findById(id)).thenReturn(Optional.of(existingEmployee));
-        when(positionRepositoryMock.findByName("Boss")).thenReturn(Optional.of(directorPosition));
-        when(departmentRepositoryMock.findByName("Finance")).thenReturn(Optional.of(financeDepartment));
-        when(employeeRepositoryMock.save(existingEmployee)).thenReturn(existingEmployee);
+        when(positionRepositoryMock.findAll()).thenReturn(List.of(directorPosition));
+        when(departmentRepositoryMock.findAll()).thenReturn(List.of(financeDepartment));
+        when(employeeRepositoryMock.updateEmployee(id, "Anna", 5000, 1L, 2L, 3L)).thenReturn(1);
 
         EmployeeDTO updatedEmployeeDTO = employeeService.editEmployee(id, employeeDTO);
 
-        assertNotNull(updatedEmployeeDTO);
-        assertEquals("Anna", existingEmployee.getName());
-        assertEquals(5000, existingEmployee.getSalary());
-        assertEquals(directorPosition, existingEmployee.getPosition());
-        assertEquals(financeDepartment, existingEmployee.getDepartment());
+        assertEquals("Anna", updatedEmployeeDTO.getName());
+        assertEquals(5000, updatedEmployeeDTO.getSalary());
+        assertEquals("Boss", updatedEmployeeDTO.getPositionName());
+        assertEquals("Finance", updatedEmployeeDTO.getDepartmentName());
+        assertEquals(4L, updatedEmployeeDTO.getVersion());
+        verify(employeeRepositoryMock, never()).findById(any());
+        verify(employeeRepositoryMock, never()).save(any());
+        verify(employeeRepositoryMock, never()).findEmployeeDTOById(any());
+    }
 
-        assertEquals(employeeDTO.getName(), updatedEmployeeDTO.getName());
+    @DisplayName("Тест инвалидации кэша сотрудника только после фиксации транзакции")
+    @Test
+    public void testEditEmployeeInvalidatesCacheAfterCommit() {
+        when(employeeRepositoryMock.findEmployeeDTOById(1L))
+                .thenReturn(Optional.of(new EmployeeDTO("Anna", 5000, "Boss", "Finance", 1L)));
+        when(employeeRepositoryMock.updateEmployee(1L, "Anna", 7000, null, null, null)).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            employeeService.editEmployee(1L, new EmployeeDTO("Anna", 7000, null, null));
+            // Чтение до коммита видит старую строку и кладёт её в кэш.
+            assertEquals(5000, employeeService.getEmployeeById(1L).getSalary());
+
+            when(employeeRepositoryMock.findEmployeeDTOById(1L))
+                    .thenReturn(Optional.of(new EmployeeDTO("Anna", 7000, "Boss", "Finance", 2L)));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(7000, employeeService.getEmployeeById(1L).getSalary());
+    }
+
+    @DisplayName("Тест редактирования сотрудника с устаревшей версией")
+    @Test
+    public void testEditEmployeeWithStaleVersion() {
+        EmployeeDTO employeeDTO = new EmployeeDTO("Anna", 5000, null, null, 3L);
+        when(employeeRepositoryMock.updateEmployee(1L, "Anna", 5000, null, null, 3L)).thenReturn(0);
+        when(employeeRepositoryMock.existsById(1L)).thenReturn(true);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> employeeService.editEmployee(1L, employeeDTO));
+
+        when(employeeRepositoryMock.existsById(2L)).thenReturn(false);
+        assertThrows(NoSuchElementException.class, () -> employeeService.editEmployee(2L, employeeDTO));
     }
 
     @DisplayName("Тест для метода удаления сотрудника")
@@ -275,14 +420,85 @@ class EmployeeServiceImplTest {
     public void testDeleteEmployeeById() {
 
         Long id = 1L;
-        Employee employee = createTestEmployees().get(1);
 
-        when(employeeRepositoryMock.findById(id)).thenReturn(Optional.of(employee));
+        when(employeeRepositoryMock.deleteEmployeeById(id)).thenReturn(1);
 
         employeeService.deleteEmployeeById(id);
 
-        verify(employeeRepositoryMock, times(1)).findById(id);
-        verify(employeeRepositoryMock, times(1)).delete(employee);
+        verify(employeeRepositoryMock, times(1)).deleteEmployeeById(id);
+        verify(employeeRepositoryMock, never()).findById(any());
+
+        assertThrows(NoSuchElementException.class, () -> employeeService.deleteEmployeeById(2L));
+    }
+
+    @DisplayName("Тест массового удаления сотрудников по списку id и по фильтру")
+    @Test
+    public void testDeleteEmployees() {
+        List<Long> ids = Stream.iterate(1L, id -> id + 1).limit(1500).toList();
+        when(employeeRepositoryMock.deleteEmployeesByIds(anyCollection()))
+                .thenAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).size());
+
+        assertEquals(1500, employeeService.deleteEmployees(ids, null, null));
+        verify(employeeRepositoryMock, times(2)).deleteEmployeesByIds(anyCollection());
+
+        List<Long> firstChunk = ids.subList(0, 1000);
+        List<Long> lastChunk = List.of(2001L, 2002L);
+        when(employeeRepositoryMock.findIdsByDepartmentAndPosition(eq("Finance"), isNull(), any(Pageable.class)))
+                .thenReturn(firstChunk, lastChunk);
+
+        assertEquals(1002, employeeService.deleteEmployees(null, "Finance", null));
+        verify(employeeRepositoryMock, times(2)).findIdsByDepartmentAndPosition(eq("Finance"), isNull(), any(Pageable.class));
+        verify(employeeRepositoryMock).deleteEmployeesByIds(lastChunk);
+
+        assertThrows(IllegalArgumentException.class, () -> employeeService.deleteEmployees(null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> employeeService.deleteEmployees(List.of(1L), "Finance", null));
+    }
+
+    @DisplayName("Тест массового частичного изменения с результатом по каждому сотруднику")
+    @Test
+    public void testPatchEmployees() {
+        when(employeeRepositoryMock.batchUpdateEmployees(anyList())).thenReturn(new int[]{1, 0, 0});
+        when(employeeRepositoryMock.findExistingIds(List.of(2L, 3L))).thenReturn(List.of(2L));
+        long versionBefore = employeeDataVersion.current();
+
+        EmployeeBulkPatchResultDTO result = employeeService.patchEmployees(new EmployeeBulkPatchDTO(List.of(
+                new EmployeePatchDTO(1L, null, 6000, null, null, null),
+                new EmployeePatchDTO(2L, "Anna", null, null, null, 5L),
+                new EmployeePatchDTO(3L, null, 7000, null, null, null)), null));
+
+        assertEquals(1, result.getUpdatedCount());
+        assertEquals(List.of(EmployeePatchStatus.UPDATED, EmployeePatchStatus.CONFLICT, EmployeePatchStatus.NOT_FOUND),
+                result.getResults().stream().map(EmployeePatchResultDTO::getStatus).toList());
+        assertTrue(employeeDataVersion.current() > versionBefore);
+
+        when(employeeRepositoryMock.multiplySalaries(new BigDecimal("1.10"), "Finance", null)).thenReturn(4);
+        assertEquals(4, employeeService.patchEmployees(new EmployeeBulkPatchDTO(null,
+                new SalaryRaiseDTO("Finance", null, BigDecimal.TEN))).getUpdatedCount());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> employeeService.patchEmployees(new EmployeeBulkPatchDTO(null, null)));
+        assertThrows(IllegalArgumentException.class, () -> employeeService.patchEmployees(new EmployeeBulkPatchDTO(
+                List.of(new EmployeePatchDTO(1L, null, 8000, null, null, null)),
+                new SalaryRaiseDTO("Finance", null, BigDecimal.valueOf(-100)))));
+        verify(employeeRepositoryMock, times(1)).batchUpdateEmployees(anyList());
+    }
+
+    @DisplayName("Тест изменения зарплаты сразу и через буфер отложенной записи")
+    @Test
+    public void testUpdateSalary() {
+        when(employeeRepositoryMock.updateSalary(1L, 6000)).thenReturn(1);
+
+        assertTrue(employeeService.updateSalary(1L, 6000));
+        verify(salaryWriteBehindBufferMock, never()).offer(anyLong(), anyInt());
+        verify(employeeRepositoryMock, never()).updateEmployee(any(), any(), anyInt(), any(), any(), any());
+        assertThrows(NoSuchElementException.class, () -> employeeService.updateSalary(2L, 6000));
+
+        when(salaryWriteBehindBufferMock.isEnabled()).thenReturn(true);
+        assertFalse(employeeService.updateSalary(1L, 7000));
+        verify(salaryWriteBehindBufferMock).offer(1L, 7000);
+        verify(employeeRepositoryMock, never()).updateSalary(1L, 7000);
+
+        assertThrows(IllegalArgumentException.class, () -> employeeService.updateSalary(1L, -1));
     }
 
     @DisplayName("Тест для метода получения данных о сотрудниках с зарплатой выше заданной")
@@ -294,7 +510,7 @@ class EmployeeServiceImplTest {
         employees.add(new Employee(1L, "Anna", 5000, new Position(1L, "Boss"), new Department("Finance")));
         employees.add(new Employee(2L, "Vladimir", 4000, new Position(1L, "Boss"), new Department("Sales")));
 
-        when(employeeRepositoryMock.findBySalaryGreaterThan(compareSalary)).thenReturn(employees);
+        when(employeeRepositoryMock.findEmployeeDTOsBySalaryGreaterThan(compareSalary)).thenReturn(toDtos(employees));
 
         List<EmployeeDTO> result = employeeService.getEmployeesWithSalaryHigherThan(compareSalary);
 
@@ -311,13 +527,31 @@ class EmployeeServiceImplTest {
         }
     }
 
+    @DisplayName("Тест получения сотрудников с зарплатой выше заданной через индекс зарплат")
+    @Test
+    public void testGetEmployeesWithSalaryHigherThanFromSalaryIndex() {
+        when(employeeRepositoryMock.streamIdsAndSalaries()).thenReturn(Stream.<Object[]>of(
+                new Object[]{1L, 5000, 0L}, new Object[]{2L, 4000, 0L}, new Object[]{3L, 2000, 0L}));
+        SalaryIndex salaryIndex = new SalaryIndex(true, employeeRepositoryMock, mock(PlatformTransactionManager.class));
+        salaryIndex.rebuild();
+        EmployeeService indexedService = createEmployeeService(objectMapperMock, 1000, salaryIndex);
+        when(employeeRepositoryMock.findEmployeeRowsByIds(anyList())).thenReturn(List.of(
+                new Object[]{1L, "Anna", 5000, "Manager", "Finance", 0L},
+                new Object[]{2L, "Vladimir", 4000, "Manager", "Finance", 0L}));
+
+        List<EmployeeDTO> result = indexedService.getEmployeesWithSalaryHigherThan(3000);
+
+        assertEquals(List.of("Vladimir", "Anna"), result.stream().map(EmployeeDTO::getName).toList());
+        verify(employeeRepositoryMock, never()).findEmployeeDTOsBySalaryGreaterThan(anyInt());
+    }
+
     @DisplayName("Тест для метода получения данных о сотрудниках с самой высокой зарплатой")
     @Test
     public void testGetEmployeesWithHighestSalary() {
 
         List<Employee> employees = createTestEmployees();
 
-        when(employeeRepositoryMock.getEmployeesWithHighestSalary()).thenReturn(employees);
+        when(employeeRepositoryMock.findEmployeeDTOsWithHighestSalary()).thenReturn(toDtos(employees));
 
         List<EmployeeDTO> result = employeeService.getEmployeesWithHighestSalary();
 
@@ -340,9 +574,9 @@ class EmployeeServiceImplTest {
         int page = 0;
         List<Employee> employees = createTestEmployees();
         Pageable pageable = PageRequest.of(page, 5);
-        Page<Employee> employeePage = new PageImpl<>(employees, pageable, employees.size());
+        Page<EmployeeDTO> employeePage = new PageImpl<>(toDtos(employees), pageable, employees.size());
 
-        when(employeeRepositoryMock.findAll(pageable)).thenReturn(employeePage);
+        when(employeeRepositoryMock.findEmployeeDTOs(pageable)).thenReturn(employeePage);
 
         Page<EmployeeDTO> result = employeeService.getEmployeesByPage(page);
 
@@ -359,12 +593,44 @@ class EmployeeServiceImplTest {
         }
     }
 
+    @DisplayName("Тест для метода получения сотрудников по курсору")
+    @Test
+    public void testGetEmployeesAfterCursor() {
+        List<Object[]> rows = List.of(
+                new Object[]{3L, "Anna", 5000, "Manager", "Finance"},
+                new Object[]{7L, "Vladimir", 4000, "Manager", "Finance"},
+                new Object[]{9L, "Maria", 3000, "Manager", "Finance"});
+        when(employeeRepositoryMock.findEmployeeRowsAfter(0L, PageRequest.of(0, 3))).thenReturn(rows);
+        when(employeeRepositoryMock.findEmployeeRowsAfter(7L, PageRequest.of(0, 3))).thenReturn(rows.subList(2, 3));
+
+        EmployeeCursorPageDTO firstPage = employeeService.getEmployeesAfterCursor(null, 2);
+        EmployeeCursorPageDTO secondPage = employeeService.getEmployeesAfterCursor(firstPage.getNextCursor(), 2);
+
+        assertEquals(2, firstPage.getContent().size());
+        assertTrue(firstPage.isHasNext());
+        assertEquals("Maria", secondPage.getContent().get(0).getName());
+        assertFalse(secondPage.isHasNext());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @DisplayName("Тест ограничения размера страницы при получении по курсору")
+    @Test
+    public void testGetEmployeesAfterCursorCapsPageSize() {
+        when(employeeRepositoryMock.findEmployeeRowsAfter(0L, PageRequest.of(0, 101))).thenReturn(List.of());
+
+        EmployeeCursorPageDTO page = employeeService.getEmployeesAfterCursor(null, 10_000);
+
+        assertTrue(page.getContent().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> employeeService.getEmployeesAfterCursor(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> employeeService.getEmployeesAfterCursor("bm9wZQ", 5));
+    }
+
     @DisplayName("Тест метода получения отчёта из БД по его id")
     @Test
     public void testGetReportById() {
 
         Long reportId = 1L;
-        Report mockReport = new Report(reportId, "Report.json", "Report content");
+        Report mockReport = new Report(reportId, "Report.json");
 
         when(reportRepositoryMock.findById(reportId)).thenReturn(Optional.of(mockReport));
 
@@ -373,4 +639,171 @@ class EmployeeServiceImplTest {
         assertTrue(result.isPresent());
         assertEquals(mockReport, result.get());
     }
-}
\ No newline at end of file
+
+    @DisplayName("Тест сохранения отчёта: JSON пишется потоком сразу в файл отчёта")
+    @Test
+    public void testSaveReportDTOsToJsonAndInTable() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        EmployeeServiceImpl reportService = (EmployeeServiceImpl) createEmployeeService(objectMapper, 1000);
+        ReportDTO reportDTO = new ReportDTO();
+        reportDTO.setDepartmentName("Finance");
+        reportDTO.setEmployeeCount(2L);
+        reportDTO.setMaxSalary(5000);
+        reportDTO.setMinSalary(4000);
+        reportDTO.setAverageSalary(new BigDecimal("4500.00"));
+        when(reportRepositoryMock.save(any(Report.class))).thenAnswer(invocation -> {
+            Report saved = invocation.getArgument(0);
+            saved.setId(7L);
+            return saved;
+        });
+
+        Long reportId = reportService.saveReportDTOsToJsonAndInTable(List.of(reportDTO, reportDTO));
+
+        assertEquals(7L, reportId);
+        verify(reportRepositoryMock).save(argThat(report ->
+                report.getSizeBytes() > 0 && report.getChecksum().length() == 64));
+        List<Path> files;
+        try (Stream<Path> list = Files.list(reportDirectory)) {
+            files = list.toList();
+        }
+        assertEquals(1, files.size());
+        assertTrue(files.get(0).getFileName().toString().endsWith(".json.gz"));
+        ReportDTO[] written;
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(files.get(0)))) {
+            written = objectMapper.readValue(inputStream, ReportDTO[].class);
+        }
+        assertEquals(2, written.length);
+        assertEquals("Finance", written[0].getDepartmentName());
+        assertEquals(0, new BigDecimal("4500.00").compareTo(written[1].getAverageSalary()));
+    }
+
+    @DisplayName("Тест повторного использования отчёта, пока данные о сотрудниках не менялись")
+    @Test
+    public void testGetReportByDepartmentReusesReportForSameDataVersion() throws IOException {
+        EmployeeService reportService = createEmployeeService(new ObjectMapper(), 1000);
+        long versionBefore = employeeDataVersion.current();
+        when(employeeRepositoryMock.streamIdsSalariesAndDepartments()).thenAnswer(invocation -> Stream.<Object[]>of(
+                new Object[]{1L, 5000, "Finance"}, new Object[]{2L, 4000, "Finance"}));
+        when(reportRepositoryMock.findIdsByDataVersion(eq(versionBefore), any(Pageable.class))).thenReturn(List.of());
+        when(reportRepositoryMock.save(any(Report.class))).thenAnswer(invocation -> {
+            Report saved = invocation.getArgument(0);
+            saved.setId(7L);
+            return saved;
+        });
+
+        assertEquals(7L, reportService.getReportByDepartment());
+        verify(reportRepositoryMock).save(argThat(report -> report.getDataVersion() == versionBefore));
+
+        when(reportRepositoryMock.findIdsByDataVersion(eq(versionBefore), any(Pageable.class))).thenReturn(List.of(7L));
+        assertEquals(7L, reportService.getReportByDepartment());
+        verify(employeeRepositoryMock, times(1)).streamIdsSalariesAndDepartments();
+        assertEquals(0.5, meterRegistry.get("report.reuse.ratio").gauge().value());
+
+        when(employeeRepositoryMock.deleteEmployeeById(1L)).thenReturn(1);
+        reportService.deleteEmployeeById(1L);
+
+        assertTrue(employeeDataVersion.current() > versionBefore);
+        when(reportRepositoryMock.findIdsByDataVersion(eq(employeeDataVersion.current()), any(Pageable.class)))
+                .thenReturn(List.of());
+        reportService.getReportByDepartment();
+        verify(employeeRepositoryMock, times(2)).streamIdsSalariesAndDepartments();
+        assertEquals(2.0, meterRegistry.get("report.requests").tag("result", "generated").counter().count());
+    }
+
+    @DisplayName("Тест потокового импорта сотрудников из файла порциями")
+    @Test
+    public void testImportEmployeesFromFileInChunks() throws IOException {
+        EmployeeService streamingService = createEmployeeService(new ObjectMapper(), 2);
+        MockMultipartFile file = new MockMultipartFile("file", "employees.json", "application/json",
+                ("[{\"name\":\"Anna\",\"salary\":5000,\"positionName\":\"Manager\",\"departmentName\":\"Finance\"}," +
+                        "{\"name\":\"Vladimir\",\"salary\":4000,\"positionName\":\"Manager\",\"departmentName\":\"Finance\"}," +
+                        "{\"name\":\"Maria\",\"salary\":3000,\"positionName\":\"Manager\",\"departmentName\":\"Finance\"}]")
+                        .getBytes(StandardCharsets.UTF_8));
+        when(positionRepositoryMock.findAll()).thenReturn(List.of(position));
+        when(departmentRepositoryMock.findAll()).thenReturn(List.of(department));
+        List<Integer> chunkSizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            chunkSizes.add(((List<?>) invocation.getArgument(0)).size());
+            return null;
+        }).when(employeeRepositoryMock).saveAll(anyList());
+
+        int importedCount = streamingService.importEmployeesFromFile(file);
+
+        assertEquals(3, importedCount);
+        assertEquals(List.of(2, 1), chunkSizes);
+    }
+
+    @DisplayName("Тест потокового импорта большого файла без чтения его в память целиком")
+    @Test
+    public void testImportEmployeesFromLargeFile() throws IOException {
+        int rowCount = 20_000;
+        int chunkSize = 500;
+        EmployeeService streamingService = createEmployeeService(new ObjectMapper(), chunkSize);
+        MultipartFile file = mock(MultipartFile.class);
+        when(file.getInputStream()).thenReturn(generateEmployeesJson(rowCount));
+        when(positionRepositoryMock.findAll()).thenReturn(List.of(position));
+        when(departmentRepositoryMock.findAll()).thenReturn(List.of(department));
+        int[] maxChunkSize = new int[1];
+        doAnswer(invocation -> {
+            maxChunkSize[0] = Math.max(maxChunkSize[0], ((List<?>) invocation.getArgument(0)).size());
+            return null;
+        }).when(employeeRepositoryMock).saveAll(anyList());
+
+        int importedCount = streamingService.importEmployeesFromFile(file);
+
+        assertEquals(rowCount, importedCount);
+        assertEquals(chunkSize, maxChunkSize[0]);
+        verify(employeeRepositoryMock, times(rowCount / chunkSize)).saveAll(anyList());
+        verify(file, never()).getBytes();
+    }
+
+    @DisplayName("Тест импорта файла, который не содержит JSON-массив")
+    @Test
+    public void testImportEmployeesFromFileWhenNotArray() {
+        EmployeeService streamingService = createEmployeeService(new ObjectMapper(), 2);
+        MockMultipartFile file = new MockMultipartFile("file", "employees.json", "application/json",
+                "{\"name\":\"Anna\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IOException.class, () -> streamingService.importEmployeesFromFile(file));
+        verify(employeeRepositoryMock, never()).saveAll(anyList());
+    }
+
+    private EmployeeDTO toDto(Employee employee) {
+        return new EmployeeDTO(employee.getName(), employee.getSalary(),
+                employee.getPosition().getName(), employee.getDepartment().getName());
+    }
+
+    private List<EmployeeDTO> toDtos(List<Employee> employees) {
+        return employees.stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    private InputStream generateEmployeesJson(int rowCount) {
+        Enumeration<InputStream> parts = new Enumeration<>() {
+            private int row = -1;
+
+            @Override
+            public boolean hasMoreElements() {
+                return row <= rowCount;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                String part;
+                if (row == -1) {
+                    part = "[";
+                } else if (row == rowCount) {
+                    part = "]";
+                } else {
+                    part = (row == 0 ? "" : ",") + "{\"name\":\"Employee" + row
+                            + "\",\"salary\":" + (1000 + row)
+                            + ",\"positionName\":\"Manager\",\"departmentName\":\"Finance\"}";
+                }
+                row++;
+                return new ByteArrayInputStream(part.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        return new SequenceInputStream(parts);
+    }
+}
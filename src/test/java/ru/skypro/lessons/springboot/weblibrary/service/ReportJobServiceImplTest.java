@@ -0,0 +1,108 @@
+package ru.skypro.lessons.springboot.weblibrary.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportJobDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportJobStatus;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportJobServiceImplTest {
+
+    @Mock
+    private EmployeeService employeeServiceMock;
+    private SimpleMeterRegistry meterRegistry;
+    private ReportJobServiceImpl reportJobService;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        reportJobService = new ReportJobServiceImpl(employeeServiceMock, meterRegistry, 1, 1, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    public void shutdown() {
+        release.countDown();
+        reportJobService.shutdown();
+    }
+
+    @DisplayName("Задача отчёта выполняется асинхронно и возвращает id отчёта")
+    @Test
+    public void testSubmitDepartmentReport() throws Exception {
+        when(employeeServiceMock.getReportByDepartment()).thenReturn(42L);
+
+        ReportJobDTO submitted = reportJobService.submitDepartmentReport();
+        ReportJobDTO finished = reportJobService.awaitJob(submitted.getJobId()).get(5, TimeUnit.SECONDS);
+
+        assertEquals(ReportJobStatus.DONE, finished.getStatus());
+        assertEquals(42L, finished.getReportId());
+        assertEquals(ReportJobStatus.DONE, reportJobService.getJob(submitted.getJobId()).getStatus());
+        assertEquals(1.0, meterRegistry.counter("report.jobs.submitted").count());
+    }
+
+    @DisplayName("Повторная отправка незавершённого отчёта возвращает ту же задачу")
+    @Test
+    public void testSubmitDeduplicatesActiveJob() throws Exception {
+        ReportJobDTO first = reportJobService.submit("department", this::blockUntilReleased);
+        ReportJobDTO second = reportJobService.submit("department", this::blockUntilReleased);
+
+        assertEquals(first.getJobId(), second.getJobId());
+        assertEquals(1.0, meterRegistry.counter("report.jobs.deduplicated").count());
+
+        release.countDown();
+        reportJobService.awaitJob(first.getJobId()).get(5, TimeUnit.SECONDS);
+        ReportJobDTO third = reportJobService.submit("department", () -> 2L);
+        assertNotEquals(first.getJobId(), third.getJobId());
+    }
+
+    @DisplayName("При переполнении очереди задача отклоняется")
+    @Test
+    public void testSubmitRejectsWhenQueueIsFull() {
+        reportJobService.submit("running", this::blockUntilReleased);
+        reportJobService.submit("queued", this::blockUntilReleased);
+
+        assertThrows(RejectedExecutionException.class,
+                () -> reportJobService.submit("rejected", this::blockUntilReleased));
+        assertEquals(1.0, meterRegistry.counter("report.jobs.rejected").count());
+        assertEquals(2.0, meterRegistry.counter("report.jobs.submitted").count());
+    }
+
+    @DisplayName("Ошибка генерации отчёта переводит задачу в статус FAILED")
+    @Test
+    public void testFailedJob() throws Exception {
+        when(employeeServiceMock.getReportByDepartment()).thenThrow(new IOException("disk full"));
+
+        ReportJobDTO submitted = reportJobService.submitDepartmentReport();
+        ReportJobDTO finished = reportJobService.awaitJob(submitted.getJobId()).get(5, TimeUnit.SECONDS);
+
+        assertEquals(ReportJobStatus.FAILED, finished.getStatus());
+        assertEquals("disk full", finished.getError());
+    }
+
+    @DisplayName("Запрос несуществующей задачи")
+    @Test
+    public void testUnknownJob() {
+        assertThrows(NoSuchElementException.class, () -> reportJobService.getJob("unknown"));
+    }
+
+    private Long blockUntilReleased() throws InterruptedException {
+        release.await(5, TimeUnit.SECONDS);
+        return 1L;
+    }
+}
@@ -0,0 +1,75 @@
+package ru.skypro.lessons.springboot.weblibrary.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.skypro.lessons.springboot.weblibrary.cache.EmployeeDataVersion;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportJobDTO;
+import ru.skypro.lessons.springboot.weblibrary.dto.ReportJobStatus;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportPrecomputeJobTest {
+
+    @Mock
+    private ReportJobService reportJobServiceMock;
+
+    private final EmployeeDataVersion employeeDataVersion = new EmployeeDataVersion();
+    private ReportPrecomputeJob reportPrecomputeJob;
+
+    @BeforeEach
+    public void setup() {
+        reportPrecomputeJob = new ReportPrecomputeJob(reportJobServiceMock, employeeDataVersion, true);
+    }
+
+    @DisplayName("Отчёт отправляется в очередь отчётов только после изменения данных, изменения за интервал объединяются")
+    @Test
+    public void testPrecomputeRunsOnlyAfterDataChange() {
+        when(reportJobServiceMock.submitDepartmentReport())
+                .thenReturn(new ReportJobDTO("job-1", ReportJobStatus.QUEUED, null, null))
+                .thenReturn(new ReportJobDTO("job-2", ReportJobStatus.QUEUED, null, null));
+        when(reportJobServiceMock.awaitJob(anyString())).thenAnswer(invocation -> CompletableFuture.completedFuture(
+                new ReportJobDTO(invocation.getArgument(0), ReportJobStatus.DONE, 1L, null)));
+
+        assertTrue(reportPrecomputeJob.precompute());
+        assertFalse(reportPrecomputeJob.precompute());
+
+        employeeDataVersion.increment();
+        employeeDataVersion.increment();
+        employeeDataVersion.increment();
+
+        assertTrue(reportPrecomputeJob.precompute());
+        assertFalse(reportPrecomputeJob.precompute());
+        verify(reportJobServiceMock, times(2)).submitDepartmentReport();
+    }
+
+    @DisplayName("После ошибки, отказа очереди или уже начатой задачи отчёт отправляется снова")
+    @Test
+    public void testFailedPrecomputeIsRetried() {
+        when(reportJobServiceMock.submitDepartmentReport())
+                .thenThrow(new RejectedExecutionException("queue full"))
+                .thenReturn(new ReportJobDTO("job-1", ReportJobStatus.QUEUED, null, null))
+                .thenReturn(new ReportJobDTO("job-2", ReportJobStatus.RUNNING, null, null))
+                .thenReturn(new ReportJobDTO("job-3", ReportJobStatus.QUEUED, null, null));
+        when(reportJobServiceMock.awaitJob("job-1")).thenReturn(CompletableFuture.completedFuture(
+                new ReportJobDTO("job-1", ReportJobStatus.FAILED, null, "disk full")));
+        when(reportJobServiceMock.awaitJob("job-2")).thenReturn(CompletableFuture.completedFuture(
+                new ReportJobDTO("job-2", ReportJobStatus.DONE, 1L, null)));
+        when(reportJobServiceMock.awaitJob("job-3")).thenReturn(CompletableFuture.completedFuture(
+                new ReportJobDTO("job-3", ReportJobStatus.DONE, 2L, null)));
+
+        for (int i = 0; i < 5; i++) {
+            reportPrecomputeJob.scheduledPrecompute();
+        }
+
+        verify(reportJobServiceMock, times(4)).submitDepartmentReport();
+    }
+}
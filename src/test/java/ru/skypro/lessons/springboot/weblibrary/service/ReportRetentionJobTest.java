@@ -0,0 +1,97 @@
+package ru.skypro.lessons.springboot.weblibrary.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.skypro.lessons.springboot.weblibrary.repository.ReportContentRepository;
+import ru.skypro.lessons.springboot.weblibrary.repository.ReportRepository;
+import ru.skypro.lessons.springboot.weblibrary.storage.ReportStorage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportRetentionJobTest {
+
+    @Mock
+    private ReportRepository reportRepositoryMock;
+    @Mock
+    private ReportContentRepository reportContentRepositoryMock;
+    @Mock
+    private PlatformTransactionManager transactionManagerMock;
+    @TempDir
+    private Path reportDirectory;
+    private ReportStorage reportStorage;
+    private ReportRetentionJob reportRetentionJob;
+
+    @BeforeEach
+    public void setup() {
+        reportStorage = new ReportStorage(reportDirectory);
+        reportRetentionJob = new ReportRetentionJob(reportRepositoryMock, reportContentRepositoryMock,
+                reportStorage, transactionManagerMock, Duration.ofDays(30), 2);
+    }
+
+    @DisplayName("Старые отчёты удаляются порциями вместе с файлами")
+    @Test
+    public void testPruneInBatches() throws IOException {
+        LocalDateTime createdBefore = LocalDateTime.now().minusDays(30);
+        for (String fileName : List.of("a.json", "b.json", "c.json")) {
+            reportStorage.write(fileName, outputStream -> outputStream.write('1'));
+        }
+        when(reportRepositoryMock.findIdsAndFileNamesCreatedBefore(createdBefore, PageRequest.of(0, 2)))
+                .thenReturn(List.of(new Object[]{1L, "a.json"}, new Object[]{2L, "b.json"}))
+                .thenReturn(List.<Object[]>of(new Object[]{3L, "c.json"}));
+        when(reportRepositoryMock.deleteByIds(List.of(1L, 2L))).thenReturn(2);
+        when(reportRepositoryMock.deleteByIds(List.of(3L))).thenReturn(1);
+
+        int deletedCount = reportRetentionJob.prune(createdBefore);
+
+        assertEquals(3, deletedCount);
+        verify(reportContentRepositoryMock).deleteByReportIds(List.of(1L, 2L));
+        verify(reportContentRepositoryMock).deleteByReportIds(List.of(3L));
+        verify(transactionManagerMock, times(2)).commit(any());
+        assertFalse(Files.exists(reportStorage.resolveCompressed("a.json")));
+        assertFalse(Files.exists(reportStorage.resolveCompressed("c.json")));
+    }
+
+    @DisplayName("Удаление старого отчёта не трогает файл другого отчёта с тем же именем")
+    @Test
+    public void testPruneLegacyReportWithSharedFileName() throws IOException {
+        LocalDateTime createdBefore = LocalDateTime.now().minusDays(30);
+        for (long id : new long[]{1L, 2L}) {
+            reportStorage.writeCompressed(ReportStorage.legacyFileName(id), outputStream -> outputStream.write('1'));
+        }
+        when(reportRepositoryMock.findIdsAndFileNamesCreatedBefore(createdBefore, PageRequest.of(0, 2)))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, "report_18102026_1200"}));
+        when(reportRepositoryMock.deleteByIds(List.of(1L))).thenReturn(1);
+
+        assertEquals(1, reportRetentionJob.prune(createdBefore));
+
+        assertFalse(Files.exists(reportStorage.resolveCompressed(ReportStorage.legacyFileName(1L))));
+        assertTrue(Files.exists(reportStorage.resolveCompressed(ReportStorage.legacyFileName(2L))));
+    }
+
+    @DisplayName("Без старых отчётов ничего не удаляется")
+    @Test
+    public void testPruneNothing() {
+        LocalDateTime createdBefore = LocalDateTime.now();
+        when(reportRepositoryMock.findIdsAndFileNamesCreatedBefore(createdBefore, PageRequest.of(0, 2)))
+                .thenReturn(List.of());
+
+        assertEquals(0, reportRetentionJob.prune(createdBefore));
+        verify(reportRepositoryMock, never()).deleteByIds(anyCollection());
+    }
+}